@@ -0,0 +1,308 @@
+package bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import model.Die;
+import model.GreedGame;
+import model.RandomSource;
+import model.ScoreTable;
+import model.Xoshiro256Random;
+import sim.Simulator;
+import sim.ThresholdStrategy;
+
+/***********************************************************************
+ * @author Matt Conflitti
+ * @version 1.006092015
+ *
+ * GreedBenchmarks measures the throughput of scoring, rolling,
+ * rendering and whole simulated games with JMH. Scoring benchmarks
+ * cycle through a fixed corpus of seeded dice states so runs are
+ * comparable across versions. Every benchmark keeps its state per
+ * thread and shares nothing, so JMH's -t option scales them out
+ * without contention.
+ *
+ * Usage: gradle :jmh:jmh [-PjmhArgs='JMH options']
+ **********************************************************************/
+
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class GreedBenchmarks {
+
+	/** number of dice states in the corpus */
+	static final int CORPUS = 1024;
+
+	/** seed of the dice corpus */
+	static final long SEED = 20150609L;
+
+	/** packed faces of each corpus roll, 3 bits per die */
+	static final int[] ROLLS = new int[CORPUS];
+
+	/** score table key of each corpus roll */
+	static final int[] KEYS = new int[CORPUS];
+
+	static {
+		RandomSource rng = new Xoshiro256Random(SEED);
+		for(int i = 0; i<CORPUS; i++) {
+			ROLLS[i] = rng.rollSix();
+			for(int d = 0, f = ROLLS[i]; d<6; d++, f >>>= 3) {
+				KEYS[i] += 1 << (((f & 7) - 1) * ScoreTable.BITS_PER_FACE);
+			}
+		}
+	}
+
+	/*******************************************************************
+	 * @author Matt Conflitti
+	 * @version 1.006092015
+	 *
+	 * Corpus position of one benchmark thread
+	 ******************************************************************/
+
+	@State(Scope.Thread)
+	public static class Cursor {
+
+		/** scores filled by the batch scorer */
+		int[] scores = new int[CORPUS];
+
+		/** dice used filled by the batch scorer */
+		byte[] used = new byte[CORPUS];
+
+		/** next corpus index, wrapped with the corpus mask */
+		int i;
+
+		/***************************************************************
+		 * Returns the next corpus index
+		 *
+		 * @return index into the corpus
+		 **************************************************************/
+
+		int next() {
+			return i++ & (CORPUS-1);
+		}
+	}
+
+	/*******************************************************************
+	 * @author Matt Conflitti
+	 * @version 1.006092015
+	 *
+	 * Seeded two player game of one benchmark thread
+	 ******************************************************************/
+
+	@State(Scope.Thread)
+	public static class Game {
+
+		/** game being measured */
+		GreedGame game;
+
+		/** reused render buffer */
+		StringBuilder sb = new StringBuilder(256);
+
+		/***************************************************************
+		 * Creates the game before each trial
+		 **************************************************************/
+
+		@Setup
+		public void setup() {
+			game = new GreedGame(0, 10000, new Xoshiro256Random(SEED));
+			game.makePlayers(2);
+		}
+
+		/***************************************************************
+		 * Sets the game's dice to a corpus roll
+		 *
+		 * @param roll packed faces
+		 **************************************************************/
+
+		void setDice(int roll) {
+			game.setDice(roll & 7, roll >>> 3 & 7, roll >>> 6 & 7,
+					roll >>> 9 & 7, roll >>> 12 & 7, roll >>> 15 & 7);
+		}
+	}
+
+	/*******************************************************************
+	 * @author Matt Conflitti
+	 * @version 1.006092015
+	 *
+	 * Die of one benchmark thread
+	 ******************************************************************/
+
+	@State(Scope.Thread)
+	public static class Dice {
+
+		/** die being rolled */
+		Die die = new Die();
+	}
+
+	/*******************************************************************
+	 * @author Matt Conflitti
+	 * @version 1.006092015
+	 *
+	 * Seeded two player simulator of one benchmark thread
+	 ******************************************************************/
+
+	@State(Scope.Thread)
+	public static class Sim {
+
+		/** simulator being measured */
+		Simulator sim;
+
+		/***************************************************************
+		 * Creates the simulator before each trial
+		 **************************************************************/
+
+		@Setup
+		public void setup() {
+			sim = new Simulator(10000, new ThresholdStrategy(300),
+					new ThresholdStrategy(400));
+			sim.setRandom(new Xoshiro256Random(SEED));
+		}
+	}
+
+	/*******************************************************************
+	 * Looks up the table entry of one corpus roll
+	 *
+	 * @param c corpus position
+	 * @return packed score and dice used
+	 ******************************************************************/
+
+	@Benchmark
+	public int scoreTableEntry(Cursor c) {
+		return ScoreTable.STANDARD.entry(KEYS[c.next()]);
+	}
+
+	/*******************************************************************
+	 * Scores the whole corpus with the batch scorer, counted per roll
+	 *
+	 * @param c scoring arrays
+	 * @param bh sink for the results
+	 ******************************************************************/
+
+	@Benchmark
+	@OperationsPerInvocation(CORPUS)
+	public void scoreTableScoreRolls(Cursor c, Blackhole bh) {
+		ScoreTable.STANDARD.scoreRolls(ROLLS, c.scores, c.used, 0, CORPUS);
+		bh.consume(c.scores);
+		bh.consume(c.used);
+	}
+
+	/*******************************************************************
+	 * Scores one corpus roll through the game
+	 *
+	 * @param g game
+	 * @param c corpus position
+	 * @return roll score
+	 ******************************************************************/
+
+	@Benchmark
+	public int greedGameTurn(Game g, Cursor c) {
+		g.setDice(ROLLS[c.next()]);
+		g.game.turn();
+		g.game.setTurnScore(0);
+		return g.game.getRollScore();
+	}
+
+	/*******************************************************************
+	 * Rolls the game's available dice
+	 *
+	 * @param g game
+	 * @return dice available after the roll
+	 ******************************************************************/
+
+	@Benchmark
+	public int greedGameRollDice(Game g) {
+		g.game.rollDice();
+		return g.game.getDiceAvail();
+	}
+
+	/*******************************************************************
+	 * Rolls one die
+	 *
+	 * @param d die
+	 * @return face rolled
+	 ******************************************************************/
+
+	@Benchmark
+	public int dieRoll(Dice d) {
+		return d.die.roll();
+	}
+
+	/*******************************************************************
+	 * Renders the dice
+	 *
+	 * @param g game
+	 * @return rendered dice
+	 ******************************************************************/
+
+	@Benchmark
+	public String greedGameDisplayDice(Game g) {
+		return g.game.displayDice();
+	}
+
+	/*******************************************************************
+	 * Renders the turn summary
+	 *
+	 * @param g game
+	 * @return rendered turn
+	 ******************************************************************/
+
+	@Benchmark
+	public String greedGameDisplayTurn(Game g) {
+		return g.game.displayTurn();
+	}
+
+	/*******************************************************************
+	 * Renders the game score
+	 *
+	 * @param g game
+	 * @return rendered scores
+	 ******************************************************************/
+
+	@Benchmark
+	public String greedGameDisplayGameScore(Game g) {
+		return g.game.displayGameScore();
+	}
+
+	/*******************************************************************
+	 * Renders dice, turn and score into one reused buffer
+	 *
+	 * @param g game and buffer
+	 * @return length rendered
+	 ******************************************************************/
+
+	@Benchmark
+	public int greedGameAppendAll(Game g) {
+		StringBuilder sb = g.sb;
+		sb.setLength(0);
+		g.game.appendDice(sb);
+		g.game.appendTurn(sb);
+		g.game.appendGameScore(sb);
+		return sb.length();
+	}
+
+	/*******************************************************************
+	 * Plays one whole simulated game
+	 *
+	 * @param s simulator
+	 * @return winning seat
+	 ******************************************************************/
+
+	@Benchmark
+	public int simulatorGames(Sim s) {
+		return s.sim.play(0);
+	}
+}
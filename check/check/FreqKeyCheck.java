@@ -0,0 +1,153 @@
+package check;
+
+import java.util.SplittableRandom;
+
+import model.GreedGame;
+import model.RandomSource;
+import model.ScoreTable;
+import model.Xoshiro256Random;
+
+/***********************************************************************
+ * @author Matt Conflitti
+ * @version 1.006092015
+ *
+ * FreqKeyCheck plays a GreedGame, passing the dice at random, and after
+ * every roll, scoring, pass and reset compares the frequency key the
+ * game keeps up to date with one counted again from its faces and
+ * availability mask. It also sets the dice to random values, some
+ * outside 1-6, and compares again. Exits with status 1 on any
+ * mismatch.
+ *
+ * Usage: FreqKeyCheck [rolls]
+ **********************************************************************/
+
+public class FreqKeyCheck {
+
+	/** default number of rolls to check */
+	private static final int DEFAULT_ROLLS = 2000000;
+
+	/** seed of the dice and of the pass decisions */
+	private static final long SEED = 20150609L;
+
+	/** winning score of the checked game */
+	private static final int WIN_SCORE = 5000;
+
+	/** players in the checked game */
+	private static final int PLAYERS = 3;
+
+	/** game being checked */
+	private final GreedGame game;
+
+	/** keys compared */
+	private long checked;
+
+	/** mismatches found */
+	private long failures;
+
+	/*******************************************************************
+	 *
+	 * Constructor that creates the game at its starting state
+	 *
+	 ******************************************************************/
+
+	public FreqKeyCheck() {
+		game = new GreedGame(0, WIN_SCORE, new Xoshiro256Random(SEED));
+		game.makePlayers(PLAYERS);
+	}
+
+	/*******************************************************************
+	 * Plays the game for a number of rolls, checking the key after
+	 * every change
+	 *
+	 * @param rolls rolls to play
+	 ******************************************************************/
+
+	public void play(long rolls) {
+		SplittableRandom choice = new SplittableRandom(SEED);
+		for(long k = 0; k<rolls; k++) {
+			game.rollDice();
+			compare("roll " + k);
+			game.turn();
+			compare("score of roll " + k);
+
+			if(game.getRollScore() == 0)
+				game.setTurnScore(0);
+			if(game.getRollScore() == 0 || choice.nextInt(3) == 0) {
+				game.passDice();
+				compare("pass after roll " + k);
+			}
+
+			if(game.isWon()) {
+				game.reset(0, WIN_SCORE);
+				compare("reset after roll " + k);
+			}
+		}
+	}
+
+	/*******************************************************************
+	 * Sets the dice to random values from 0 to 7, with whichever dice
+	 * the last roll left available, and checks the key
+	 *
+	 * @param times number of settings to try
+	 ******************************************************************/
+
+	public void setDice(int times) {
+		SplittableRandom r = new SplittableRandom(SEED);
+		for(int k = 0; k<times; k++) {
+			if(r.nextInt(4) == 0) {
+				game.rollDice();
+				game.turn();
+			}
+			game.setDice(r.nextInt(8), r.nextInt(8), r.nextInt(8),
+					r.nextInt(8), r.nextInt(8), r.nextInt(8));
+			compare("setDice " + k);
+		}
+	}
+
+	/*******************************************************************
+	 * Helper method compares the game's key with one counted from its
+	 * faces and availability mask
+	 *
+	 * @param where description of the point being compared
+	 ******************************************************************/
+
+	private void compare(String where) {
+		checked++;
+		int faces = game.getFaces();
+		int avail = game.getAvailMask();
+		int key = 0;
+		for(int i = 0; i<6; i++) {
+			int face = (faces >>> (i*RandomSource.FACE_BITS)) & 7;
+			if((avail & (1 << i)) != 0)
+				key += 1 << ((face-1) * ScoreTable.BITS_PER_FACE);
+		}
+
+		if(game.getFreqKey() != key) {
+			failures++;
+			if(failures <= 20)
+				System.out.println("Mismatch at " + where + ": faces " +
+						Integer.toOctalString(faces) + ", available " +
+						Integer.toBinaryString(avail) + ", key " +
+						Integer.toOctalString(game.getFreqKey()) +
+						", expected " + Integer.toOctalString(key));
+		}
+	}
+
+	/*******************************************************************
+	 * Main method runs the check
+	 ******************************************************************/
+
+	public static void main(String[] args) {
+		long rolls = args.length > 0 ? Long.parseLong(args[0]) :
+			DEFAULT_ROLLS;
+
+		FreqKeyCheck c = new FreqKeyCheck();
+		c.play(rolls);
+		c.setDice(100000);
+
+		System.out.println("FreqKeyCheck: " + rolls + " rolls, " +
+				c.checked + " keys, " + c.failures + " mismatches");
+		if(c.failures > 0)
+			System.exit(1);
+	}
+}
@@ -0,0 +1,167 @@
+package check;
+
+import java.util.SplittableRandom;
+
+import model.GreedGame;
+import model.PackedGreedGame;
+import model.RandomSource;
+import model.Xoshiro256Random;
+
+/***********************************************************************
+ * @author Matt Conflitti
+ * @version 1.006092015
+ *
+ * PackedGameCheck plays a GreedGame and a PackedGreedGame side by side
+ * from identically seeded random sources, passing the dice at random,
+ * and compares their whole state after every roll. It also sets both
+ * games' dice to random values, some outside 1-6, and checks that both
+ * keep the same faces. Exits with status 1 on any mismatch.
+ *
+ * Usage: PackedGameCheck [rolls]
+ **********************************************************************/
+
+public class PackedGameCheck {
+
+	/** default number of rolls to compare */
+	private static final int DEFAULT_ROLLS = 2000000;
+
+	/** seed of the dice and of the pass decisions */
+	private static final long SEED = 20150609L;
+
+	/** winning score of the compared games */
+	private static final int WIN_SCORE = 5000;
+
+	/** players in the compared games */
+	private static final int PLAYERS = 3;
+
+	/** object based game */
+	private final GreedGame game;
+
+	/** packed game */
+	private final PackedGreedGame packed;
+
+	/** random source of the packed game */
+	private final RandomSource rng;
+
+	/** mismatches found */
+	private long failures;
+
+	/*******************************************************************
+	 *
+	 * Constructor that creates both games at their starting state
+	 *
+	 ******************************************************************/
+
+	public PackedGameCheck() {
+		game = new GreedGame(0, WIN_SCORE, new Xoshiro256Random(SEED));
+		game.makePlayers(PLAYERS);
+		packed = new PackedGreedGame(PLAYERS, 0, WIN_SCORE);
+		rng = new Xoshiro256Random(SEED);
+	}
+
+	/*******************************************************************
+	 * Plays both games for a number of rolls, comparing after each
+	 *
+	 * @param rolls rolls to play
+	 ******************************************************************/
+
+	public void play(long rolls) {
+		SplittableRandom choice = new SplittableRandom(SEED);
+		for(long k = 0; k<rolls; k++) {
+			game.rollDice();
+			packed.rollDice(rng);
+			game.turn();
+			packed.turn();
+			compare("roll " + k);
+
+			if(game.getRollScore() == 0) {
+				game.setTurnScore(0);
+				packed.setTurnScore(0);
+			}
+			if(game.getRollScore() == 0 || choice.nextInt(3) == 0) {
+				game.passDice();
+				packed.passDice();
+				compare("pass after roll " + k);
+			}
+
+			if(game.isWon()) {
+				game.reset(0, WIN_SCORE);
+				packed.reset(0, WIN_SCORE);
+			}
+		}
+	}
+
+	/*******************************************************************
+	 * Sets both games' dice to random values from 0 to 7 and compares
+	 * the faces kept
+	 *
+	 * @param times number of settings to try
+	 ******************************************************************/
+
+	public void setDice(int times) {
+		SplittableRandom r = new SplittableRandom(SEED);
+		for(int k = 0; k<times; k++) {
+			int[] v = new int[6];
+			for(int i = 0; i<6; i++) {
+				v[i] = r.nextInt(8);
+			}
+			game.setDice(v[0], v[1], v[2], v[3], v[4], v[5]);
+			packed.setDice(v[0], v[1], v[2], v[3], v[4], v[5]);
+			if(game.getFaces() != (int) (packed.getDice() &
+					PackedGreedGame.FACES))
+				fail("setDice " + k);
+		}
+	}
+
+	/*******************************************************************
+	 * Helper method compares the state of both games
+	 *
+	 * @param where description of the point being compared
+	 ******************************************************************/
+
+	private void compare(String where) {
+		boolean same = game.getRollScore() == packed.getRollScore() &&
+				game.getTurnScore() == packed.getTurnScore() &&
+				game.getAvailMask() == packed.getAvailMask() &&
+				game.getDiceAvail() == packed.getDiceAvail() &&
+				game.getFaces() == (int) (packed.getDice() &
+						PackedGreedGame.FACES) &&
+				game.getPlayerTurn() == packed.getPlayerTurn() &&
+				game.getWinnerId() == packed.getWinnerId();
+		for(int i = 0; i<PLAYERS; i++) {
+			same &= game.getScore(i) == packed.getScore(i);
+		}
+		if(!same)
+			fail(where);
+	}
+
+	/*******************************************************************
+	 * Helper method records a mismatch
+	 *
+	 * @param where description of the point that differs
+	 ******************************************************************/
+
+	private void fail(String where) {
+		failures++;
+		if(failures <= 20)
+			System.out.println("Mismatch at " + where);
+	}
+
+	/*******************************************************************
+	 * Main method runs the check
+	 ******************************************************************/
+
+	public static void main(String[] args) {
+		long rolls = args.length > 0 ? Long.parseLong(args[0]) :
+			DEFAULT_ROLLS;
+
+		PackedGameCheck c = new PackedGameCheck();
+		c.play(rolls);
+		c.setDice(100000);
+
+		System.out.println("PackedGameCheck: " + rolls + " rolls, " +
+				c.failures + " mismatches");
+		if(c.failures > 0)
+			System.exit(1);
+	}
+}
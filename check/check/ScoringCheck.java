@@ -0,0 +1,232 @@
+package check;
+
+import java.util.Arrays;
+
+import model.RuleSet;
+import model.ScoreTable;
+
+/***********************************************************************
+ * @author Matt Conflitti
+ * @version 1.006092015
+ *
+ * ScoringCheck compares the standard ScoreTable with the chain of
+ * scoring helpers GreedGame used before the table existed, for every
+ * multiset of 0-6 dice. It also checks that every scoring die is
+ * counted as used and that the roll-indexed entries agree with the
+ * key-indexed ones, and that under rules valuing some combinations at
+ * 0 points a roll scoring nothing uses no dice. Exits with status 1 on
+ * any mismatch.
+ *
+ * Usage: ScoringCheck
+ **********************************************************************/
+
+public class ScoringCheck {
+
+	/** number of faces on a die */
+	private static final int FACES = 6;
+
+	/** rules with the straight and single fives worth nothing */
+	private static final ScoreTable ZERO = new RuleSet(0, 800, 1000, 100,
+			2, 4, 8, 100, 0).compile();
+
+	/** frequency vector being scored by the reference helpers */
+	private final int[] freq = new int[FACES];
+
+	/** mismatches found */
+	private int failures;
+
+	/** multisets checked */
+	private int checked;
+
+	/*******************************************************************
+	 * Recursively enumerates frequency vectors of at most six dice and
+	 * checks each one
+	 *
+	 * @param face face currently being assigned a count
+	 * @param dice number of dice assigned so far
+	 ******************************************************************/
+
+	private void enumerate(int face, int dice) {
+		if(face == FACES) {
+			check();
+			return;
+		}
+
+		for(int n = 0; dice + n <= FACES; n++) {
+			freq[face] = n;
+			enumerate(face+1, dice+n);
+		}
+		freq[face] = 0;
+	}
+
+	/*******************************************************************
+	 * Helper method checks the current frequency vector against the
+	 * table
+	 ******************************************************************/
+
+	private void check() {
+		checked++;
+		int key = ScoreTable.key(freq);
+		int expected = referenceScore();
+		int score = ScoreTable.STANDARD.score(key);
+		if(score != expected)
+			fail("score", expected, score);
+
+		//every die showing a scoring face is used, and no other
+		int faces = ScoreTable.STANDARD.scoringFaces(key);
+		int used = 0;
+		for(int i = 0; i<FACES; i++) {
+			if((faces & (1 << i)) != 0)
+				used += freq[i];
+		}
+		if(ScoreTable.STANDARD.used(key) != used)
+			fail("used", used, ScoreTable.STANDARD.used(key));
+		if(expected == 0 && faces != 0)
+			fail("scoring faces of a farkle", 0, faces);
+
+		//a combination worth 0 points uses no dice
+		if(ZERO.score(key) == 0 && ZERO.used(key) != 0)
+			fail("dice used by a 0 point roll", 0, ZERO.used(key));
+	}
+
+	/*******************************************************************
+	 * Helper method records a mismatch
+	 *
+	 * @param what quantity that differs
+	 * @param expected reference value
+	 * @param actual table value
+	 ******************************************************************/
+
+	private void fail(String what, int expected, int actual) {
+		failures++;
+		if(failures <= 20) {
+			System.out.println("Mismatch in " + what + " for " +
+					Arrays.toString(freq) + ": expected " +
+					expected + ", table " + actual);
+		}
+	}
+
+	/*******************************************************************
+	 * Helper method checks that every valid packed roll scores the same
+	 * through the roll-indexed table, the key-indexed table and the
+	 * batch scorer
+	 ******************************************************************/
+
+	private void checkRolls() {
+		int n = 1 << ScoreTable.ROLL_BITS;
+		int[] rolls = new int[n];
+		int[] scores = new int[n];
+		byte[] used = new byte[n];
+		for(int roll = 0; roll<n; roll++) {
+			rolls[roll] = roll;
+		}
+		ScoreTable.STANDARD.scoreRolls(rolls, scores, used, 0, n);
+
+		for(int roll = 0; roll<n; roll++) {
+			boolean valid = true;
+			for(int d = 0; d<FACES; d++) {
+				if(((roll >>> (d*3)) & 7) == 7)
+					valid = false;
+			}
+
+			int entry = valid ?
+					ScoreTable.STANDARD.entry(ScoreTable.rollKey(roll)) : 0;
+			if(ScoreTable.STANDARD.rollEntry(roll) != entry)
+				fail("roll entry " + Integer.toOctalString(roll), entry,
+						ScoreTable.STANDARD.rollEntry(roll));
+			if(scores[roll] != entry >>> 8 || used[roll] != (byte) entry)
+				fail("batch score " + Integer.toOctalString(roll), entry,
+						scores[roll] << 8 | used[roll]);
+		}
+	}
+
+	/*******************************************************************
+	 * Scores the current frequency vector with the original helpers
+	 *
+	 * @return roll score
+	 ******************************************************************/
+
+	private int referenceScore() {
+		return straightScore() + pairScore() + ofKindScore(6, 8) +
+				ofKindScore(5, 4) + ofKindScore(4, 2) + ofKindScore(3, 1) +
+				singleScore(0, 100) + singleScore(4, 50);
+	}
+
+	/*******************************************************************
+	 * Checks for a straight, 1200 pts
+	 *
+	 * @return score value to add
+	 ******************************************************************/
+
+	private int straightScore() {
+		if(freq[0] == 1 && freq[1] == 1 && freq[2] == 1 &&
+				freq[3] == 1 && freq[4] == 1 && freq[5] == 1)
+			return 1200;
+		return 0;
+	}
+
+	/*******************************************************************
+	 * Checks for three pairs, 800 pts
+	 *
+	 * @return score value to add
+	 ******************************************************************/
+
+	private int pairScore() {
+		int pairs = 0;
+		for(int i = 0; i<FACES; i++) {
+			if(freq[i] == 2)
+				pairs++;
+		}
+		return pairs == 3 ? 800 : 0;
+	}
+
+	/*******************************************************************
+	 * Checks for count of a kind, the triple score (1000 for ones,
+	 * face times 100 otherwise) times a multiplier
+	 *
+	 * @param count number of matching dice required
+	 * @param multiplier multiple of the triple score
+	 * @return score value to add
+	 ******************************************************************/
+
+	private int ofKindScore(int count, int multiplier) {
+		int score = 0;
+		for(int i = 0; i<FACES; i++) {
+			if(freq[i] == count)
+				score += (i == 0 ? 1000 : (i+1)*100) * multiplier;
+		}
+		return score;
+	}
+
+	/*******************************************************************
+	 * Checks for 1 or 2 dice of a single scoring face outside a
+	 * straight or three pairs
+	 *
+	 * @param face index of the face
+	 * @param points points per die
+	 * @return score value to add
+	 ******************************************************************/
+
+	private int singleScore(int face, int points) {
+		if(freq[face] < 3 && freq[face] > 0 && pairScore() == 0 &&
+				straightScore() == 0)
+			return freq[face] * points;
+		return 0;
+	}
+
+	/*******************************************************************
+	 * Main method runs the check
+	 ******************************************************************/
+
+	public static void main(String[] args) {
+		ScoringCheck c = new ScoringCheck();
+		c.enumerate(0, 0);
+		c.checkRolls();
+
+		System.out.println("ScoringCheck: " + c.checked + " multisets, " +
+				(1 << ScoreTable.ROLL_BITS) + " packed rolls, " +
+				c.failures + " mismatches");
+		if(c.failures > 0)
+			System.exit(1);
+	}
+}
@@ -0,0 +1,310 @@
+package ai;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/***********************************************************************
+ * @author Matt Conflitti
+ * @version 1.006092015
+ *
+ * DecisionCache holds "roll again" values keyed by turn state: the
+ * dice available, the turn score and the points still needed to win,
+ * both in scoring units. It is bounded and shared by any number of
+ * threads.
+ *
+ * The cache is 4-way set associative. A key maps to one set of four
+ * slots, a lookup reads those slots and compares keys, and nothing is
+ * locked. Inserting into a full set evicts the entry with the fewest
+ * recent uses and halves the use counts of the rest, an LFU policy
+ * with aging so states that were hot once do not stay forever.
+ *
+ * Entries are packed into primitive arrays, so nothing is allocated
+ * per entry. Each slot holds the two values as raw bits next to a
+ * check word, the key xor both values. A lookup only matches when the
+ * check word decodes to its key, so a racing or torn write reads as a
+ * miss and only costs a recomputation later. Use counts are updated
+ * without synchronization and may lose the odd increment.
+ **********************************************************************/
+
+public class DecisionCache {
+
+	/** slots per set */
+	public static final int WAYS = 4;
+
+	/** default number of entries */
+	public static final int DEFAULT_CAPACITY = 1 << 16;
+
+	/** bits of the key holding the dice available */
+	private static final int DICE_BITS = 3;
+
+	/** bits of the key holding the turn score */
+	private static final int TURN_BITS = 29;
+
+	/** longs per slot: check word, expected value bits, bust bits */
+	private static final int SLOT_LONGS = 3;
+
+	/** most recent uses counted per entry */
+	private static final int MAX_USES = 255;
+
+	/** packed slots, set s in slots s*WAYS to s*WAYS+WAYS-1 */
+	private final long[] slots;
+
+	/** recent uses of each slot's entry */
+	private final byte[] uses;
+
+	/** number of sets minus one */
+	private final int setMask;
+
+	/** lookups that found their state */
+	private final LongAdder hits = new LongAdder();
+
+	/** lookups that did not */
+	private final LongAdder misses = new LongAdder();
+
+	/** entries replaced to make room */
+	private final LongAdder evictions = new LongAdder();
+
+	/*******************************************************************
+	 *
+	 * Constructor that sets the size of the cache
+	 *
+	 * @param capacity most entries held, rounded up to a power of two
+	 ******************************************************************/
+
+	public DecisionCache(int capacity) {
+		int sets = Integer.highestOneBit(Math.max(capacity / WAYS, 1));
+		if(sets * WAYS < capacity)
+			sets <<= 1;
+		slots = new long[sets * WAYS * SLOT_LONGS];
+		uses = new byte[sets * WAYS];
+		setMask = sets - 1;
+	}
+
+	/*******************************************************************
+	 * Packs a turn state into a cache key
+	 *
+	 * @param diceAvail dice available, 1-6
+	 * @param turn turn score in scoring units
+	 * @param need points needed to win in scoring units
+	 * @return packed key, never 0 so empty slots match nothing
+	 ******************************************************************/
+
+	public static long key(int diceAvail, int turn, int need) {
+		return (long) need << (DICE_BITS + TURN_BITS) |
+				(long) turn << DICE_BITS | diceAvail;
+	}
+
+	/*******************************************************************
+	 * Helper method returns the first slot of a key's set
+	 *
+	 * @param key packed key
+	 * @return slot index
+	 ******************************************************************/
+
+	private int set(long key) {
+		long h = key * 0x9E3779B97F4A7C15L;
+		return ((int) (h >>> 32) & setMask) * WAYS;
+	}
+
+	/*******************************************************************
+	 * Helper method returns the key a slot holds
+	 *
+	 * @param slot slot index
+	 * @return key, or 0 for an empty or torn slot
+	 ******************************************************************/
+
+	private long keyAt(int slot) {
+		int at = slot * SLOT_LONGS;
+		return slots[at] ^ slots[at+1] ^ slots[at+2];
+	}
+
+	/*******************************************************************
+	 * Helper method returns the slot holding a key
+	 *
+	 * @param key packed key
+	 * @return slot index, or -1 if the state is not cached
+	 ******************************************************************/
+
+	private int find(long key) {
+		int base = set(key);
+		for(int i = base; i<base + WAYS; i++) {
+			if(keyAt(i) == key)
+				return i;
+		}
+		return -1;
+	}
+
+	/*******************************************************************
+	 * Looks up the expected value of a state
+	 *
+	 * @param key packed key
+	 * @return expected banked points of rolling again, or NaN if the
+	 * state is not cached
+	 ******************************************************************/
+
+	public double get(long key) {
+		int slot = find(key);
+		if(slot < 0) {
+			misses.increment();
+			return Double.NaN;
+		}
+
+		//the values are read again, a write since the match reads as a
+		//miss rather than as another state's value
+		int at = slot * SLOT_LONGS;
+		long expected = slots[at+1];
+		if((slots[at] ^ expected ^ slots[at+2]) != key) {
+			misses.increment();
+			return Double.NaN;
+		}
+		if((uses[slot] & 0xFF) < MAX_USES)
+			uses[slot]++;
+		hits.increment();
+		return Double.longBitsToDouble(expected);
+	}
+
+	/*******************************************************************
+	 * Looks up the bust probability of a state without counting the
+	 * lookup
+	 *
+	 * @param key packed key
+	 * @return probability the roll scores nothing, or NaN if the state
+	 * is not cached
+	 ******************************************************************/
+
+	public double getBust(long key) {
+		int slot = find(key);
+		if(slot < 0)
+			return Double.NaN;
+		int at = slot * SLOT_LONGS;
+		long bust = slots[at+2];
+		if((slots[at] ^ slots[at+1] ^ bust) != key)
+			return Double.NaN;
+		return Double.longBitsToDouble(bust);
+	}
+
+	/*******************************************************************
+	 * Stores the values of a state, evicting the least used entry of
+	 * its set when the set is full
+	 *
+	 * @param key packed key
+	 * @param expected expected banked points of rolling again
+	 * @param bust probability the roll scores nothing
+	 ******************************************************************/
+
+	public void put(long key, double expected, double bust) {
+		int base = set(key);
+
+		int victim = -1;
+		boolean full = true;
+		for(int i = base; i<base + WAYS; i++) {
+			long k = keyAt(i);
+			if(k == key)
+				return;
+			if(k == 0) {
+				victim = i;
+				full = false;
+				break;
+			}
+			if(victim < 0 || (uses[i] & 0xFF) < (uses[victim] & 0xFF))
+				victim = i;
+		}
+
+		//values first and the check word last, so a reader sees either
+		//the old entry, the new one or a miss
+		long e = Double.doubleToRawLongBits(expected);
+		long b = Double.doubleToRawLongBits(bust);
+		int at = victim * SLOT_LONGS;
+		slots[at+1] = e;
+		slots[at+2] = b;
+		slots[at] = key ^ e ^ b;
+		uses[victim] = 1;
+
+		if(full) {
+			evictions.increment();
+			for(int i = base; i<base + WAYS; i++) {
+				if(i != victim)
+					uses[i] = (byte) ((uses[i] & 0xFF) >>> 1);
+			}
+		}
+	}
+
+	/*******************************************************************
+	 * Getter method to return the most entries held
+	 *
+	 * @return capacity
+	 ******************************************************************/
+
+	public int getCapacity() {
+		return uses.length;
+	}
+
+	/*******************************************************************
+	 * Returns the number of entries held, by scanning every slot
+	 *
+	 * @return entries
+	 ******************************************************************/
+
+	public int size() {
+		int n = 0;
+		for(int i = 0; i<uses.length; i++) {
+			if(keyAt(i) != 0)
+				n++;
+		}
+		return n;
+	}
+
+	/*******************************************************************
+	 * Getter method to return lookups that found their state
+	 *
+	 * @return hits
+	 ******************************************************************/
+
+	public long getHits() {
+		return hits.sum();
+	}
+
+	/*******************************************************************
+	 * Getter method to return lookups that did not find their state
+	 *
+	 * @return misses
+	 ******************************************************************/
+
+	public long getMisses() {
+		return misses.sum();
+	}
+
+	/*******************************************************************
+	 * Getter method to return entries replaced to make room
+	 *
+	 * @return evictions
+	 ******************************************************************/
+
+	public long getEvictions() {
+		return evictions.sum();
+	}
+
+	/*******************************************************************
+	 * Returns the fraction of lookups that found their state
+	 *
+	 * @return hit rate, 0 before any lookup
+	 ******************************************************************/
+
+	public double getHitRate() {
+		long h = hits.sum();
+		long total = h + misses.sum();
+		return total == 0 ? 0 : (double) h / total;
+	}
+
+	/*******************************************************************
+	 * Returns a string representation of this cache's statistics
+	 *
+	 * @return string form of this object
+	 ******************************************************************/
+
+	public String toString() {
+		return String.format("Decision cache: %d/%d entries, hit rate " +
+				"%.4f (%d hits, %d misses), %d evictions", size(),
+				getCapacity(), getHitRate(), getHits(), getMisses(),
+				getEvictions());
+	}
+}
@@ -0,0 +1,235 @@
+package ai;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+import model.GreedGame;
+import model.RollOdds;
+import model.RuleSet;
+import sim.Strategy;
+
+/***********************************************************************
+ * @author Matt Conflitti
+ * @version 1.006092015
+ *
+ * ExpectimaxStrategy decides whether to roll again by looking ahead
+ * over every outcome of the rest of the turn. The value of a turn state
+ * (turn score t, dice available d) is the larger of banking t and the
+ * expected value of rolling, where a bust is worth nothing. Points past
+ * what the player needs to win are worth nothing more, so the lookahead
+ * is capped at the points needed and always ends.
+ *
+ * Values are memoized per cap: the first decision with a given cap
+ * fills a small table bottom-up from the exact roll odds, and every
+ * later decision with that cap is a lookup. In front of that, each
+ * decision's value is kept in a bounded DecisionCache, so a repeated
+ * decision is a single lock-free probe. Any number of games and
+ * threads can share one strategy.
+ **********************************************************************/
+
+public class ExpectimaxStrategy implements Strategy {
+
+	/** largest turn score the lookahead considers */
+	public static final int DEFAULT_MAX_TURN = 10000;
+
+	/** exact outcome distribution of each roll */
+	private final RollOdds odds;
+
+	/** greatest common divisor of all roll scores, in points */
+	private final int unit;
+
+	/** largest turn score the lookahead considers, in units */
+	private final int maxTurn;
+
+	/** state values per cap in units, value[t*7 + d] */
+	private final ConcurrentHashMap<Integer, double[]> memo =
+			new ConcurrentHashMap<>();
+
+	/** values of recent decisions */
+	private final DecisionCache cache;
+
+	/*******************************************************************
+	 *
+	 * Constructor that looks ahead under the standard rules
+	 *
+	 ******************************************************************/
+
+	public ExpectimaxStrategy() {
+		this(RollOdds.STANDARD, DEFAULT_MAX_TURN);
+	}
+
+	/*******************************************************************
+	 *
+	 * Constructor that looks ahead with the given roll odds
+	 *
+	 * @param odds exact roll odds of the rules being played
+	 * @param maxTurn largest turn score the lookahead considers
+	 ******************************************************************/
+
+	public ExpectimaxStrategy(RollOdds odds, int maxTurn) {
+		this(odds, maxTurn,
+				new DecisionCache(DecisionCache.DEFAULT_CAPACITY));
+	}
+
+	/*******************************************************************
+	 *
+	 * Constructor that looks ahead with the given roll odds and keeps
+	 * decisions in the given cache. Strategies may share a cache only
+	 * if they have the same odds and maxTurn.
+	 *
+	 * @param odds exact roll odds of the rules being played
+	 * @param maxTurn largest turn score the lookahead considers
+	 * @param cache cache of decision values
+	 ******************************************************************/
+
+	public ExpectimaxStrategy(RollOdds odds, int maxTurn,
+			DecisionCache cache) {
+		this.odds = odds;
+		this.cache = cache;
+
+		int g = 0;
+		for(int d = 1; d<=RuleSet.NBR_OF_DICE; d++) {
+			for(int o = 0; o<odds.getOutcomeCount(d); o++) {
+				g = gcd(g, odds.getOutcomeScore(d, o));
+			}
+		}
+		this.unit = Math.max(g, 1);
+		this.maxTurn = Math.max(1, maxTurn / unit);
+	}
+
+	/*******************************************************************
+	 * Helper method returns the greatest common divisor
+	 *
+	 * @param a first value
+	 * @param b second value
+	 * @return gcd of a and b
+	 ******************************************************************/
+
+	private static int gcd(int a, int b) {
+		while(b != 0) {
+			int t = a % b;
+			a = b;
+			b = t;
+		}
+		return a;
+	}
+
+	/*******************************************************************
+	 * Rolls again when the expected value of rolling beats banking the
+	 * current turn score
+	 *
+	 * @param game game positioned after a scoring roll
+	 * @return true to roll again
+	 ******************************************************************/
+
+	@Override
+	public boolean rollAgain(GreedGame game) {
+		int need = game.getWinScore() -
+				game.getScore(game.getPlayerTurn());
+		return rollValue(game.getTurnScore(), game.getDiceAvail(), need) >
+				Math.min(game.getTurnScore(), need);
+	}
+
+	/*******************************************************************
+	 * Returns the expected banked points of rolling once more and then
+	 * playing the rest of the turn perfectly
+	 *
+	 * @param turnScore turn score at stake
+	 * @param diceAvail dice available to roll
+	 * @param need points the player needs to win
+	 * @return expected banked points, capped at need
+	 ******************************************************************/
+
+	public double rollValue(int turnScore, int diceAvail, int need) {
+		int cap = Math.max(1, Math.min((need + unit - 1) / unit, maxTurn));
+		int t = turnScore / unit;
+		if(t >= cap)
+			return cap * unit;
+
+		long key = DecisionCache.key(diceAvail, t, cap);
+		double value = cache.get(key);
+		if(Double.isNaN(value)) {
+			value = roll(values(cap), cap, t, diceAvail) * unit;
+			cache.put(key, value, odds.bustProbability(diceAvail));
+		}
+		return value;
+	}
+
+	/*******************************************************************
+	 * Returns the memoized state values for a cap, filling them on
+	 * first use
+	 *
+	 * @param cap points needed in units
+	 * @return state values in units
+	 ******************************************************************/
+
+	private double[] values(int cap) {
+		double[] v = memo.get(cap);
+		if(v == null) {
+			v = solve(cap);
+			memo.putIfAbsent(cap, v);
+		}
+		return v;
+	}
+
+	/*******************************************************************
+	 * Fills the values of every state below a cap, from the highest
+	 * turn score down since every scoring roll raises the turn score
+	 *
+	 * @param cap points needed in units
+	 * @return state values in units, value[t*7 + d]
+	 ******************************************************************/
+
+	private double[] solve(int cap) {
+		final int stride = RuleSet.NBR_OF_DICE+1;
+		double[] v = new double[cap * stride];
+		for(int t = cap-1; t>=0; t--) {
+			for(int d = 1; d<=RuleSet.NBR_OF_DICE; d++) {
+				v[t*stride + d] = Math.max(t, roll(v, cap, t, d));
+			}
+		}
+		return v;
+	}
+
+	/*******************************************************************
+	 * Returns the expected value of rolling from a state, given the
+	 * values of every higher state
+	 *
+	 * @param v state values in units
+	 * @param cap points needed in units
+	 * @param t turn score in units
+	 * @param d dice available
+	 * @return expected value in units
+	 ******************************************************************/
+
+	private double roll(double[] v, int cap, int t, int d) {
+		final int stride = RuleSet.NBR_OF_DICE+1;
+		double value = 0;
+		for(int o = 0; o<odds.getOutcomeCount(d); o++) {
+			int next = t + odds.getOutcomeScore(d, o) / unit;
+			value += odds.getOutcomeProbability(d, o) * (next >= cap ?
+					cap : v[next*stride + odds.getOutcomeNext(d, o)]);
+		}
+		return value;
+	}
+
+	/*******************************************************************
+	 * Getter method to return the cache of decision values
+	 *
+	 * @return cache
+	 ******************************************************************/
+
+	public DecisionCache getCache() {
+		return cache;
+	}
+
+	/*******************************************************************
+	 * Returns a string representation of this strategy
+	 *
+	 * @return string form of this object
+	 ******************************************************************/
+
+	@Override
+	public String toString() {
+		return "Expectimax";
+	}
+}
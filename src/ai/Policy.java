@@ -0,0 +1,256 @@
+package ai;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.LongBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/***********************************************************************
+ * @author Matt Conflitti
+ * @version 1.006092015
+ *
+ * Policy holds a solved roll again / bank decision for every two player
+ * turn state, one bit per state. Scores are stored in units of 50
+ * points, the smallest amount any roll can score.
+ *
+ * A policy can be saved to a file and loaded back with FileChannel.map,
+ * so lookups read the mapped file directly and loading is near instant
+ * however large the table. The file is a 16 byte header (magic,
+ * version, goal in units, players) followed by the decision bits as
+ * little endian longs.
+ **********************************************************************/
+
+public class Policy {
+
+	/** points per score unit */
+	public static final int UNIT = 50;
+
+	/** first int of a policy file, "GRDP" */
+	private static final int MAGIC = 0x47524450;
+
+	/** policy file format version */
+	private static final int VERSION = 1;
+
+	/** size of the policy file header in bytes */
+	private static final int HEADER = 16;
+
+	/** players the policy is solved for */
+	private static final int PLAYERS = 2;
+
+	/** winning score in units */
+	private final int goal;
+
+	/** decision bits, set when rolling again is best */
+	private final LongBuffer bits;
+
+	/*******************************************************************
+	 *
+	 * Constructor that creates an all-bank policy for a winning score
+	 *
+	 * @param winScore winning score of the game
+	 ******************************************************************/
+
+	public Policy(int winScore) {
+		this.goal = units(winScore);
+		long words = (states(goal) + 63) >>> 6;
+		if(words > (Integer.MAX_VALUE - HEADER) / 8)
+			throw new IllegalArgumentException("winScore too large");
+
+		this.bits = LongBuffer.allocate((int) words);
+	}
+
+	/*******************************************************************
+	 * 
+	 * Constructor that wraps decision bits read from a file
+	 * 
+	 * @param goal winning score in units
+	 * @param bits decision bits
+	 ******************************************************************/
+
+	private Policy(int goal, LongBuffer bits) {
+		this.goal = goal;
+		this.bits = bits;
+	}
+
+	/*******************************************************************
+	 * Maps a policy file into memory. Lookups read the mapped file so
+	 * nothing is copied onto the heap.
+	 * 
+	 * @param file policy file written by save()
+	 * @return mapped policy
+	 * @throws IOException if the file cannot be read or is not a
+	 * policy file
+	 ******************************************************************/
+
+	public static Policy load(Path file) throws IOException {
+		try(FileChannel ch = FileChannel.open(file,
+				StandardOpenOption.READ)) {
+			long size = ch.size();
+			if(size < HEADER || size > Integer.MAX_VALUE)
+				throw new IOException("Not a policy file: " + file);
+
+			MappedByteBuffer map =
+					ch.map(FileChannel.MapMode.READ_ONLY, 0, size);
+			map.order(ByteOrder.LITTLE_ENDIAN);
+			int goal = map.getInt(8);
+			if(map.getInt(0) != MAGIC || map.getInt(4) != VERSION ||
+					map.getInt(12) != PLAYERS || goal < 1 ||
+					size != HEADER + ((states(goal) + 63) >>> 6) * 8)
+				throw new IOException("Not a policy file: " + file);
+
+			map.position(HEADER);
+			LongBuffer bits = map.slice().order(ByteOrder.LITTLE_ENDIAN)
+					.asLongBuffer();
+			return new Policy(goal, bits);
+		}
+	}
+
+	/*******************************************************************
+	 * Writes this policy to a file, replacing any existing file
+	 * 
+	 * @param file file to write
+	 * @throws IOException if the file cannot be written
+	 ******************************************************************/
+
+	public void save(Path file) throws IOException {
+		try(FileChannel ch = FileChannel.open(file,
+				StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+				StandardOpenOption.TRUNCATE_EXISTING)) {
+			ByteBuffer buf = ByteBuffer.allocate(1 << 16)
+					.order(ByteOrder.LITTLE_ENDIAN);
+			buf.putInt(MAGIC).putInt(VERSION).putInt(goal).putInt(PLAYERS);
+
+			for(int i = 0; i<bits.limit(); i++) {
+				if(buf.remaining() < 8) {
+					writeFully(ch, buf);
+				}
+				buf.putLong(bits.get(i));
+			}
+			writeFully(ch, buf);
+		}
+	}
+
+	/*******************************************************************
+	 * Writes out and clears a filled buffer
+	 * 
+	 * @param ch channel to write to
+	 * @param buf buffer ready for writing
+	 * @throws IOException if the write fails
+	 ******************************************************************/
+
+	private static void writeFully(FileChannel ch, ByteBuffer buf)
+			throws IOException {
+		buf.flip();
+		while(buf.hasRemaining()) {
+			ch.write(buf);
+		}
+		buf.clear();
+	}
+
+	/*******************************************************************
+	 * Converts a winning score to units, rounding up since reaching
+	 * the winning score means reaching the next whole unit
+	 *
+	 * @param winScore winning score in points
+	 * @return winning score in units
+	 ******************************************************************/
+
+	public static int units(int winScore) {
+		if(winScore < UNIT)
+			throw new IllegalArgumentException();
+
+		return (winScore + UNIT - 1) / UNIT;
+	}
+
+	/*******************************************************************
+	 * Returns the number of states of a policy with the given goal
+	 *
+	 * @param goal winning score in units
+	 * @return number of states
+	 ******************************************************************/
+
+	static long states(int goal) {
+		return (long) goal * goal * goal * 6;
+	}
+
+	/*******************************************************************
+	 * Returns the bit index of a state. All arguments are in units
+	 * except dice.
+	 *
+	 * @param my current player's game score
+	 * @param opp opponent's game score
+	 * @param turn current turn score
+	 * @param dice dice available, 1-6
+	 * @return bit index
+	 ******************************************************************/
+
+	long index(int my, int opp, int turn, int dice) {
+		return (((long) my * goal + opp) * goal + turn) * 6 + dice - 1;
+	}
+
+	/*******************************************************************
+	 * Records the decision for a state
+	 *
+	 * @param my current player's score in units
+	 * @param opp opponent's score in units
+	 * @param turn turn score in units
+	 * @param dice dice available, 1-6
+	 * @param roll true if rolling again is best
+	 ******************************************************************/
+
+	void set(int my, int opp, int turn, int dice, boolean roll) {
+		long i = index(my, opp, turn, dice);
+		int w = (int) (i >>> 6);
+		if(roll)
+			bits.put(w, bits.get(w) | 1L << i);
+		else
+			bits.put(w, bits.get(w) & ~(1L << i));
+	}
+
+	/*******************************************************************
+	 * Returns whether the current player should roll again. Scores are
+	 * in points. A player who can bank a win is always told to bank.
+	 *
+	 * @param myScore current player's game score
+	 * @param oppScore opponent's game score
+	 * @param turnScore current turn score
+	 * @param diceAvail dice available to roll
+	 * @return true to roll again, false to pass the dice
+	 ******************************************************************/
+
+	public boolean shouldRoll(int myScore, int oppScore, int turnScore,
+			int diceAvail) {
+		int my = myScore / UNIT;
+		int opp = Math.min(oppScore / UNIT, goal - 1);
+		int turn = turnScore / UNIT;
+		if(my + turn >= goal)
+			return false;
+
+		long i = index(my, opp, turn, diceAvail);
+		return (bits.get((int) (i >>> 6)) & (1L << i)) != 0;
+	}
+
+	/*******************************************************************
+	 * Getter method to return the winning score in units
+	 *
+	 * @return goal
+	 ******************************************************************/
+
+	public int getGoal() {
+		return goal;
+	}
+
+	/*******************************************************************
+	 * Getter method to return the winning score in points
+	 *
+	 * @return winning score
+	 ******************************************************************/
+
+	public int getWinScore() {
+		return goal * UNIT;
+	}
+}
@@ -0,0 +1,362 @@
+package ai;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+import model.RollOdds;
+import model.RuleSet;
+
+/***********************************************************************
+ * @author Matt Conflitti
+ * @version 1.006092015
+ *
+ * PolicySolver computes the roll again / bank policy that maximizes the
+ * probability of winning a two player game, by value iteration.
+ *
+ * The unknowns are the win probabilities W(i, j) at the start of a turn
+ * where the player to move has i units and the opponent j. Given an
+ * estimate of W, every in-turn state (turn score k, dice available d)
+ * of a turn starting at (i, j) is solved exactly by working backwards
+ * from the highest turn score, since every scoring roll raises k. A
+ * sweep recomputes all W(i, j) this way in parallel, and sweeps repeat
+ * until no value moves by more than the tolerance.
+ **********************************************************************/
+
+public class PolicySolver {
+
+	/** winning score in units */
+	private final int goal;
+
+	/** winning score in points */
+	private final int winScore;
+
+	/** pool sweeps run in */
+	private ForkJoinPool pool;
+
+	/** largest change allowed in a converged sweep */
+	private double tolerance;
+
+	/** sweep limit */
+	private int maxIterations;
+
+	/** sweeps taken by the last solve */
+	private int iterations;
+
+	/** win probabilities at the start of a turn, W[i*goal + j] */
+	private double[] win;
+
+	/** probability of zero points when rolling d dice */
+	private final double[] farkle;
+
+	/** per dice count, score in units of each scoring outcome */
+	private final int[][] outScore;
+
+	/** per dice count, dice available after each scoring outcome */
+	private final int[][] outNext;
+
+	/** per dice count, probability of each scoring outcome */
+	private final double[][] outProb;
+
+	/** reusable in-turn value table per thread */
+	private final ThreadLocal<double[]> scratch;
+
+	/*******************************************************************
+	 *
+	 * Constructor that sets up a solver for a winning score under the
+	 * standard rules
+	 *
+	 * @param winScore winning score of the game
+	 ******************************************************************/
+
+	public PolicySolver(int winScore) {
+		this(winScore, RollOdds.STANDARD);
+	}
+
+	/*******************************************************************
+	 *
+	 * Constructor that sets up a solver for a winning score under the
+	 * rules the roll odds were computed for
+	 *
+	 * @param winScore winning score of the game
+	 * @param odds exact roll odds of the rules
+	 * @throws IllegalArgumentException if a roll can score a value that
+	 * is not a whole number of policy units
+	 ******************************************************************/
+
+	public PolicySolver(int winScore, RollOdds odds) {
+		this.goal = Policy.units(winScore);
+		this.winScore = winScore;
+		this.pool = ForkJoinPool.commonPool();
+		this.tolerance = 1e-9;
+		this.maxIterations = 10000;
+		this.farkle = new double[RuleSet.NBR_OF_DICE+1];
+		this.outScore = new int[RuleSet.NBR_OF_DICE+1][];
+		this.outNext = new int[RuleSet.NBR_OF_DICE+1][];
+		this.outProb = new double[RuleSet.NBR_OF_DICE+1][];
+		this.scratch = ThreadLocal.withInitial(
+				() -> new double[(goal+1) * (RuleSet.NBR_OF_DICE+1)]);
+
+		for(int d = 1; d<=RuleSet.NBR_OF_DICE; d++) {
+			unitOutcomes(odds, d);
+		}
+	}
+
+	/*******************************************************************
+	 * Copies the scoring outcomes of rolling d dice, with scores
+	 * converted to units
+	 *
+	 * @param odds exact roll odds
+	 * @param d number of dice rolled
+	 ******************************************************************/
+
+	private void unitOutcomes(RollOdds odds, int d) {
+		int n = odds.getOutcomeCount(d);
+		farkle[d] = odds.bustProbability(d);
+		outScore[d] = new int[n];
+		outNext[d] = new int[n];
+		outProb[d] = new double[n];
+		for(int o = 0; o<n; o++) {
+			if(odds.getOutcomeScore(d, o) % Policy.UNIT != 0)
+				throw new IllegalArgumentException("Roll scores must be " +
+						"multiples of " + Policy.UNIT);
+			outScore[d][o] = odds.getOutcomeScore(d, o) / Policy.UNIT;
+			outNext[d][o] = odds.getOutcomeNext(d, o);
+			outProb[d][o] = odds.getOutcomeProbability(d, o);
+		}
+	}
+
+	/*******************************************************************
+	 * Runs value iteration to convergence and returns the optimal
+	 * policy
+	 *
+	 * @return solved policy
+	 ******************************************************************/
+
+	public Policy solve() {
+		win = new double[goal * goal];
+		iterations = 0;
+
+		double delta;
+		do {
+			double[] next = new double[win.length];
+			delta = invoke(() -> IntStream.range(0, goal).parallel()
+					.mapToDouble(i -> sweepRow(i, next)).max()
+					.orElse(0));
+			win = next;
+			iterations++;
+		} while(delta > tolerance && iterations < maxIterations);
+
+		Policy policy = new Policy(winScore);
+		for(int i = 0; i<goal; i++) {
+			for(int j = 0; j<goal; j++) {
+				solveTurn(i, j, scratch.get(), policy);
+			}
+		}
+		return policy;
+	}
+
+	/*******************************************************************
+	 * Loads the standard rules policy for a winning score from a file,
+	 * solving it and writing the file first if needed
+	 *
+	 * @param file policy file
+	 * @param winScore winning score of the game
+	 * @return policy for the winning score
+	 * @throws IOException if the file cannot be read or written
+	 ******************************************************************/
+
+	public static Policy loadOrSolve(Path file, int winScore)
+			throws IOException {
+		return loadOrSolve(file, winScore, RollOdds.STANDARD);
+	}
+
+	/*******************************************************************
+	 * Loads the policy for a winning score from a file, solving it and
+	 * writing the file first if it does not exist or was solved for a
+	 * different winning score. The file name must tell apart policies
+	 * solved for different rules. Calls are serialized so tables
+	 * opening at once solve a file only once and never read it half
+	 * written.
+	 *
+	 * @param file policy file
+	 * @param winScore winning score of the game
+	 * @param odds exact roll odds of the rules being played
+	 * @return policy for the winning score
+	 * @throws IOException if the file cannot be read or written
+	 * @throws IllegalArgumentException if the rules cannot be solved
+	 ******************************************************************/
+
+	public static synchronized Policy loadOrSolve(Path file, int winScore,
+			RollOdds odds) throws IOException {
+		if(Files.exists(file)) {
+			try {
+				Policy policy = Policy.load(file);
+				if(policy.getGoal() == Policy.units(winScore))
+					return policy;
+			} catch(IOException e) {
+				//unreadable or stale file, solve again below
+			}
+		}
+
+		new PolicySolver(winScore, odds).solve().save(file);
+		return Policy.load(file);
+	}
+
+	/*******************************************************************
+	 * Runs a sweep task in the solver's pool
+	 *
+	 * @param task sweep returning the largest change
+	 * @return largest change
+	 ******************************************************************/
+
+	private double invoke(java.util.concurrent.Callable<Double> task) {
+		try {
+			return pool.submit(task).get();
+		} catch(InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException(e);
+		} catch(ExecutionException e) {
+			throw new IllegalStateException(e.getCause());
+		}
+	}
+
+	/*******************************************************************
+	 * Recomputes W(i, j) for every opponent score j
+	 *
+	 * @param i score of the player to move, in units
+	 * @param next array receiving the new estimates
+	 * @return largest change in the row
+	 ******************************************************************/
+
+	private double sweepRow(int i, double[] next) {
+		double[] t = scratch.get();
+		double delta = 0;
+		for(int j = 0; j<goal; j++) {
+			double w = solveTurn(i, j, t, null);
+			next[i*goal + j] = w;
+			delta = Math.max(delta, Math.abs(w - win[i*goal + j]));
+		}
+		return delta;
+	}
+
+	/*******************************************************************
+	 * Solves every in-turn state of a turn starting at (i, j) against
+	 * the current estimate of W, working down from the highest turn
+	 * score
+	 *
+	 * @param i score of the player to move, in units
+	 * @param j opponent's score, in units
+	 * @param t scratch table of in-turn values, t[k*7 + d]
+	 * @param policy policy to record decisions in, or null
+	 * @return win probability at the start of the turn
+	 ******************************************************************/
+
+	private double solveTurn(int i, int j, double[] t, Policy policy) {
+		final int stride = RuleSet.NBR_OF_DICE+1;
+		int span = goal - i;
+		double bust = 1 - win[j*goal + i];
+
+		for(int k = span-1; k>=0; k--) {
+			double bank = k == 0 ? -1 : 1 - win[j*goal + i + k];
+			int first = k == 0 ? RuleSet.NBR_OF_DICE : 1;
+			for(int d = first; d<=RuleSet.NBR_OF_DICE; d++) {
+				double roll = farkle[d] * bust;
+				int[] score = outScore[d];
+				int[] nextDice = outNext[d];
+				double[] prob = outProb[d];
+				for(int o = 0; o<score.length; o++) {
+					int kk = k + score[o];
+					roll += prob[o] * (kk >= span ? 1 : t[kk*stride + nextDice[o]]);
+				}
+
+				t[k*stride + d] = Math.max(bank, roll);
+				if(policy != null)
+					policy.set(i, j, k, d, roll > bank);
+			}
+		}
+		return t[RuleSet.NBR_OF_DICE];
+	}
+
+	/*******************************************************************
+	 * Returns the win probability of the player to move at the start of
+	 * a turn, valid after solve()
+	 *
+	 * @param myScore score of the player to move
+	 * @param oppScore opponent's score
+	 * @return win probability
+	 ******************************************************************/
+
+	public double getWinProbability(int myScore, int oppScore) {
+		return win[(myScore / Policy.UNIT) * goal + oppScore / Policy.UNIT];
+	}
+
+	/*******************************************************************
+	 * Getter method to return sweeps taken by the last solve
+	 *
+	 * @return iterations
+	 ******************************************************************/
+
+	public int getIterations() {
+		return iterations;
+	}
+
+	/*******************************************************************
+	 * Setter method to set the convergence tolerance
+	 *
+	 * @param tolerance largest change allowed in a converged sweep
+	 ******************************************************************/
+
+	public void setTolerance(double tolerance) {
+		this.tolerance = tolerance;
+	}
+
+	/*******************************************************************
+	 * Setter method to set the sweep limit
+	 *
+	 * @param maxIterations sweep limit
+	 ******************************************************************/
+
+	public void setMaxIterations(int maxIterations) {
+		this.maxIterations = maxIterations;
+	}
+
+	/*******************************************************************
+	 * Setter method to set the pool sweeps run in
+	 *
+	 * @param pool pool to run sweeps in
+	 ******************************************************************/
+
+	public void setPool(ForkJoinPool pool) {
+		this.pool = pool;
+	}
+
+	/*******************************************************************
+	 * Main method solves the game for a winning score and reports the
+	 * first player's win probability, optionally saving the policy.
+	 * Usage: PolicySolver winScore [policyFile]
+	 ******************************************************************/
+
+	public static void main(String[] args) throws IOException {
+		if(args.length < 1) {
+			System.out.println("Usage: PolicySolver winScore [policyFile]");
+			return;
+		}
+
+		PolicySolver solver = new PolicySolver(Integer.parseInt(args[0]));
+		long start = System.nanoTime();
+		Policy policy = solver.solve();
+		double secs = (System.nanoTime() - start) / 1e9;
+
+		if(args.length > 1)
+			policy.save(Path.of(args[1]));
+
+		System.out.println("Sweeps: " + solver.getIterations());
+		System.out.println(String.format("First player wins: %.6f",
+				solver.getWinProbability(0, 0)));
+		System.out.println(String.format("Solved in %.1f sec", secs));
+	}
+}
@@ -0,0 +1,55 @@
+package ai;
+
+import model.GreedGame;
+import sim.Strategy;
+
+/***********************************************************************
+ * @author Matt Conflitti
+ * @version 1.006092015
+ * 
+ * PolicyStrategy makes roll again / bank decisions from a solved two
+ * player Policy.
+ **********************************************************************/
+
+public class PolicyStrategy implements Strategy {
+
+	/** solved policy */
+	private final Policy policy;
+
+	/*******************************************************************
+	 * 
+	 * Constructor that sets the policy to follow
+	 * 
+	 * @param policy solved policy
+	 ******************************************************************/
+
+	public PolicyStrategy(Policy policy) {
+		this.policy = policy;
+	}
+
+	/*******************************************************************
+	 * Looks up the decision for the current turn state
+	 * 
+	 * @param game two player game positioned after a scoring roll
+	 * @return true to roll again
+	 ******************************************************************/
+
+	@Override
+	public boolean rollAgain(GreedGame game) {
+		int turn = game.getPlayerTurn();
+		return policy.shouldRoll(game.getCurrPlayer().getGameScore(),
+				game.getPlayer(1 - turn).getGameScore(),
+				game.getTurnScore(), game.getDiceAvail());
+	}
+
+	/*******************************************************************
+	 * Returns a string representation of this strategy
+	 * 
+	 * @return string form of this object
+	 ******************************************************************/
+
+	@Override
+	public String toString() {
+		return "Policy(" + policy.getWinScore() + ")";
+	}
+}
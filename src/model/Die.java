@@ -30,7 +30,18 @@ public class Die {
 	 * @return face value of die
 	 */
 	public int roll() {
-		faceValue = (int) (Math.random() * MAX) + 1;
+		return roll(ThreadLocalRandomSource.INSTANCE);
+	}
+
+	/**
+	 * Computes a new face value for this die from the given random
+	 * source and returns the result.
+	 * 
+	 * @param rng random source to draw from
+	 * @return face value of die
+	 */
+	public int roll(RandomSource rng) {
+		faceValue = rng.nextFace();
 		return faceValue;
 	}
 
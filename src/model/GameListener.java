@@ -0,0 +1,61 @@
+package model;
+
+/***********************************************************************
+ * @author Matt Conflitti
+ * @version 1.006092015
+ * 
+ * GameListener is notified as a GreedGame is played. It is called on
+ * the thread playing the game, right after the state changes, so it
+ * should be quick. A game has one listener; chain() combines two so a
+ * game can be recorded and replayed from a tape at the same time.
+ **********************************************************************/
+
+public interface GameListener {
+
+	/*******************************************************************
+	 * Called at the end of turn(), once the dice have been scored
+	 * 
+	 * @param game game that was scored
+	 ******************************************************************/
+
+	void turned(GreedGame game);
+
+	/*******************************************************************
+	 * Called at the end of passDice(), once play has moved on
+	 * 
+	 * @param game game the dice were passed in
+	 * @param player id of the player who passed the dice
+	 ******************************************************************/
+
+	void passed(GreedGame game, int player);
+
+	/*******************************************************************
+	 * Combines two listeners into one that tells the first, then the
+	 * second
+	 * 
+	 * @param first listener told first, may be null
+	 * @param second listener told second, may be null
+	 * @return combined listener, or the other one if either is null
+	 ******************************************************************/
+
+	static GameListener chain(GameListener first, GameListener second) {
+		if(first == null)
+			return second;
+		if(second == null)
+			return first;
+
+		return new GameListener() {
+			@Override
+			public void turned(GreedGame game) {
+				first.turned(game);
+				second.turned(game);
+			}
+
+			@Override
+			public void passed(GreedGame game, int player) {
+				first.passed(game, player);
+				second.passed(game, player);
+			}
+		};
+	}
+}
@@ -0,0 +1,251 @@
+package model;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/***********************************************************************
+ * @author Matt Conflitti
+ * @version 1.006092015
+ * 
+ * GameLogReplayer streams a log written by GameLogWriter back through
+ * GreedGame. Every recorded roll is set on the dice and scored again
+ * with turn(), and every pass replayed with passDice(), so the game can
+ * be stopped after any event to inspect its state. Each game is played
+ * under the rules recorded in its header. A roll score or pass that
+ * does not match what the rules produce means the log is corrupt, and
+ * fails the replay.
+ **********************************************************************/
+
+public class GameLogReplayer implements Closeable {
+
+	/** value returned by nextEvent() at the end of the log */
+	public static final int EOF = -1;
+
+	/** channel the log is read from */
+	private final ReadableByteChannel ch;
+
+	/** buffer of bytes read but not yet decoded */
+	private final ByteBuffer buf;
+
+	/** game being replayed */
+	private GreedGame game;
+
+	/** house rules of the last header, kept so games share one table */
+	private RuleSet rules;
+
+	/*******************************************************************
+	 * 
+	 * Constructor that reads from the given channel
+	 * 
+	 * @param ch channel to read the log from
+	 ******************************************************************/
+
+	public GameLogReplayer(ReadableByteChannel ch) {
+		this.ch = ch;
+		this.buf = ByteBuffer.allocateDirect(1 << 16);
+		this.buf.flip();
+	}
+
+	/*******************************************************************
+	 * Applies the next event of the log to the game
+	 * 
+	 * @return record type applied, or EOF at the end of the log
+	 * @throws IOException if the log cannot be read or does not match
+	 * the rules
+	 ******************************************************************/
+
+	public int nextEvent() throws IOException {
+		if(!fill())
+			return EOF;
+
+		int v = getVarint();
+		int type = v & ((1 << GameLogWriter.TYPE_BITS) - 1);
+		int arg = v >>> GameLogWriter.TYPE_BITS;
+
+		switch(type) {
+		case GameLogWriter.GAME:
+			int start = getVarint();
+			int winScore = getVarint();
+			game = new GreedGame(start, winScore);
+			game.makePlayers(arg);
+			game.setRules(readRules());
+			break;
+
+		case GameLogWriter.ROLL:
+			int score = getVarint();
+			requireGame();
+			game.setDice(arg & 7, arg >>> 3 & 7, arg >>> 6 & 7,
+					arg >>> 9 & 7, arg >>> 12 & 7, arg >>> 15 & 7);
+			game.turn();
+			if(game.getRollScore() != score)
+				throw new IOException("Roll scored " + game.getRollScore()
+						+ " but log recorded " + score);
+			break;
+
+		case GameLogWriter.PASS:
+			requireGame();
+			if(game.getPlayerTurn() != arg)
+				throw new IOException("Player " + (arg+1) +
+						" passed out of turn");
+			game.passDice();
+			break;
+
+		default:
+			requireGame();
+			if(game.getWinnerId() != arg)
+				throw new IOException("Player " + (arg+1) +
+						" recorded as winner but did not win");
+		}
+		return type;
+	}
+
+	/*******************************************************************
+	 * Replays up to the end of the next complete game
+	 * 
+	 * @return the finished game, or null at the end of the log
+	 * @throws IOException if the log cannot be read or does not match
+	 * the rules
+	 ******************************************************************/
+
+	public GreedGame nextGame() throws IOException {
+		int type;
+		while((type = nextEvent()) != EOF) {
+			if(type == GameLogWriter.END)
+				return game;
+		}
+		return null;
+	}
+
+	/*******************************************************************
+	 * Getter method to return the game being replayed
+	 * 
+	 * @return game in its state after the last event, or null
+	 ******************************************************************/
+
+	public GreedGame getGame() {
+		return game;
+	}
+
+	/*******************************************************************
+	 * Closes the channel
+	 * 
+	 * @throws IOException if closing fails
+	 ******************************************************************/
+
+	@Override
+	public void close() throws IOException {
+		ch.close();
+	}
+
+	/*******************************************************************
+	 * Helper method reads the rule values of a game header
+	 * 
+	 * @return rule set, or null for the standard rules
+	 * @throws IOException if the values are not a valid rule set
+	 ******************************************************************/
+
+	private RuleSet readRules() throws IOException {
+		int n = getVarint();
+		if(n == 0)
+			return null;
+		if(n != RuleSet.STANDARD.values().length)
+			throw new IOException("Game header has " + n + " rule values");
+
+		int[] values = new int[n];
+		for(int i = 0; i<n; i++) {
+			values[i] = getVarint();
+		}
+
+		//rebuilding the same rules would compile another table
+		if(rules == null || !Arrays.equals(rules.values(), values)) {
+			try {
+				rules = RuleSet.fromValues(values);
+			} catch(IllegalArgumentException e) {
+				throw new IOException("Bad rules in game header: " +
+						e.getMessage());
+			}
+		}
+		return rules;
+	}
+
+	/*******************************************************************
+	 * Helper method checks that a game header has been read
+	 * 
+	 * @throws IOException if no game has started
+	 ******************************************************************/
+
+	private void requireGame() throws IOException {
+		if(game == null)
+			throw new IOException("Event before first game header");
+	}
+
+	/*******************************************************************
+	 * Helper method reads more of the log if the buffer is empty
+	 * 
+	 * @return false at the end of the log
+	 * @throws IOException if reading fails
+	 ******************************************************************/
+
+	private boolean fill() throws IOException {
+		while(!buf.hasRemaining()) {
+			buf.clear();
+			int n = ch.read(buf);
+			buf.flip();
+			if(n < 0)
+				return false;
+		}
+		return true;
+	}
+
+	/*******************************************************************
+	 * Helper method reads an unsigned varint
+	 * 
+	 * @return value read
+	 * @throws IOException if the log ends inside the varint
+	 ******************************************************************/
+
+	private int getVarint() throws IOException {
+		int v = 0;
+		for(int shift = 0; shift < 35; shift += 7) {
+			if(!fill())
+				throw new EOFException("Log ends inside a record");
+			byte b = buf.get();
+			v |= (b & 0x7F) << shift;
+			if(b >= 0)
+				return v;
+		}
+		throw new IOException("Malformed varint");
+	}
+
+	/*******************************************************************
+	 * Main method replays a log file and reports each game's winner.
+	 * Usage: GameLogReplayer logFile
+	 ******************************************************************/
+
+	public static void main(String[] args) throws IOException {
+		if(args.length < 1) {
+			System.out.println("Usage: GameLogReplayer logFile");
+			return;
+		}
+
+		try(GameLogReplayer log = new GameLogReplayer(
+				FileChannel.open(Path.of(args[0]), StandardOpenOption.READ))) {
+			int games = 0;
+			GreedGame game;
+			while((game = log.nextGame()) != null) {
+				games++;
+				System.out.println("Game " + games + ": Player " +
+						(game.getWinnerId()+1) + " wins\t" +
+						game.displayGameScore());
+			}
+			System.out.println("Replayed " + games + " games");
+		}
+	}
+}
@@ -0,0 +1,184 @@
+package model;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+
+/***********************************************************************
+ * @author Matt Conflitti
+ * @version 1.006092015
+ * 
+ * GameLogWriter appends a compact binary log of every game it records.
+ * Each record is an unsigned varint whose low 2 bits are the record
+ * type:
+ * 
+ *   GAME  players, then varints start player, winning score and the
+ *         number of rule values, then the values of the RuleSet in
+ *         constructor order; 0 values means the standard rules
+ *   ROLL  packed faces (3 bits per die), then varint roll score
+ *   PASS  id of the player who passed the dice
+ *   END   id of the winner, written after the winning pass
+ * 
+ * A roll takes 4 or 5 bytes and a pass 1. Records are collected in a
+ * direct buffer and written to the channel when it fills, so recording
+ * costs little more than a few byte stores per roll.
+ **********************************************************************/
+
+public class GameLogWriter implements GameListener, Closeable {
+
+	/** record type of a game header */
+	static final int GAME = 0;
+
+	/** record type of a scored roll */
+	static final int ROLL = 1;
+
+	/** record type of passing the dice */
+	static final int PASS = 2;
+
+	/** record type of a game's winner */
+	static final int END = 3;
+
+	/** bits taken by the record type */
+	static final int TYPE_BITS = 2;
+
+	/** default buffer size in bytes */
+	private static final int BUFFER = 1 << 16;
+
+	/** largest record in bytes, a game header with house rules */
+	private static final int MAX_RECORD = 64;
+
+	/** channel the log is written to */
+	private final WritableByteChannel ch;
+
+	/** buffer of records not yet written */
+	private final ByteBuffer buf;
+
+	/*******************************************************************
+	 * 
+	 * Constructor that writes to the given channel
+	 * 
+	 * @param ch channel to write the log to
+	 ******************************************************************/
+
+	public GameLogWriter(WritableByteChannel ch) {
+		this.ch = ch;
+		this.buf = ByteBuffer.allocateDirect(BUFFER);
+	}
+
+	/*******************************************************************
+	 * Writes a game header and starts recording the game. Call once per
+	 * game, after makePlayers() and before the first roll. A listener
+	 * the game already has keeps being told, ahead of the log.
+	 * 
+	 * @param game game to record
+	 ******************************************************************/
+
+	public void record(GreedGame game) {
+		reserve();
+		putVarint(game.getNumPlayers() << TYPE_BITS | GAME);
+		putVarint(game.getPlayerTurn());
+		putVarint(game.getWinScore());
+
+		//standard games carry no rule values
+		RuleSet rules = game.getRules();
+		if(rules.equals(RuleSet.STANDARD)) {
+			putVarint(0);
+		} else {
+			int[] values = rules.values();
+			putVarint(values.length);
+			for(int v : values) {
+				putVarint(v);
+			}
+		}
+		game.setListener(GameListener.chain(game.getListener(), this));
+	}
+
+	/*******************************************************************
+	 * Records the faces and score of a roll
+	 * 
+	 * @param game game that was scored
+	 ******************************************************************/
+
+	@Override
+	public void turned(GreedGame game) {
+		reserve();
+		putVarint(game.getFaces() << TYPE_BITS | ROLL);
+		putVarint(game.getRollScore());
+	}
+
+	/*******************************************************************
+	 * Records a pass, and the winner if the pass ended the game
+	 * 
+	 * @param game game the dice were passed in
+	 * @param player id of the player who passed the dice
+	 ******************************************************************/
+
+	@Override
+	public void passed(GreedGame game, int player) {
+		reserve();
+		putVarint(player << TYPE_BITS | PASS);
+		if(game.isWon())
+			putVarint(game.getWinnerId() << TYPE_BITS | END);
+	}
+
+	/*******************************************************************
+	 * Writes all buffered records to the channel
+	 * 
+	 * @throws IOException if the write fails
+	 ******************************************************************/
+
+	public void flush() throws IOException {
+		buf.flip();
+		while(buf.hasRemaining()) {
+			ch.write(buf);
+		}
+		buf.clear();
+	}
+
+	/*******************************************************************
+	 * Flushes buffered records and closes the channel
+	 * 
+	 * @throws IOException if the write fails
+	 ******************************************************************/
+
+	@Override
+	public void close() throws IOException {
+		try {
+			flush();
+		} finally {
+			ch.close();
+		}
+	}
+
+	/*******************************************************************
+	 * Helper method makes room for another record, writing the buffer
+	 * out if it is nearly full
+	 ******************************************************************/
+
+	private void reserve() {
+		if(buf.remaining() < MAX_RECORD) {
+			try {
+				flush();
+			} catch(IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		}
+	}
+
+	/*******************************************************************
+	 * Helper method appends an unsigned varint, 7 bits per byte with
+	 * the high bit set on all but the last byte
+	 * 
+	 * @param v value to append
+	 ******************************************************************/
+
+	private void putVarint(int v) {
+		while((v & ~0x7F) != 0) {
+			buf.put((byte) (v | 0x80));
+			v >>>= 7;
+		}
+		buf.put((byte) v);
+	}
+}
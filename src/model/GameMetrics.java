@@ -0,0 +1,439 @@
+package model;
+
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/***********************************************************************
+ * @author Matt Conflitti
+ * @version 1.006092015
+ *
+ * GameMetrics counts what every GreedGame in the process does: rolls,
+ * farkles, banked turns, turn and game lengths, and how long
+ * rollDice(), turn(), passDice() and rendering take. Counters are
+ * LongAdders, so games on many threads record without contending.
+ *
+ * Metrics are off unless the JVM is started with -Dgreed.metrics=true.
+ * ENABLED is a static final constant, so when it is false the JIT
+ * removes every guarded call and the hot path costs the same as with
+ * no instrumentation at all.
+ *
+ * The metrics can be read through JMX as greed:type=GameMetrics, or
+ * printed as text on a fixed period.
+ **********************************************************************/
+
+public final class GameMetrics implements GameMetricsMBean {
+
+	/** true to record metrics, set by the greed.metrics property */
+	public static final boolean ENABLED =
+			Boolean.getBoolean("greed.metrics");
+
+	/** JMX name the metrics are registered under */
+	public static final String OBJECT_NAME = "greed:type=GameMetrics";
+
+	/** the single instance, for JMX */
+	private static final GameMetrics INSTANCE = new GameMetrics();
+
+	/** rolls */
+	private static final LongAdder ROLLS = new LongAdder();
+
+	/** rolls that scored nothing */
+	private static final LongAdder FARKLES = new LongAdder();
+
+	/** turns that banked points */
+	private static final LongAdder BANKS = new LongAdder();
+
+	/** turns passed */
+	private static final LongAdder TURNS = new LongAdder();
+
+	/** games won */
+	private static final LongAdder GAMES = new LongAdder();
+
+	/** turns of every game won */
+	private static final LongAdder GAME_TURNS = new LongAdder();
+
+	/** time of rollDice() */
+	private static final LatencyHistogram ROLL_TIME =
+			new LatencyHistogram();
+
+	/** time of turn() */
+	private static final LatencyHistogram TURN_TIME =
+			new LatencyHistogram();
+
+	/** time of passDice() */
+	private static final LatencyHistogram PASS_TIME =
+			new LatencyHistogram();
+
+	/** time of rendering dice and scores as text */
+	private static final LatencyHistogram RENDER_TIME =
+			new LatencyHistogram();
+
+	/** rolls per turn */
+	private static final LatencyHistogram TURN_LENGTH =
+			new LatencyHistogram();
+
+	/** daemon thread printing periodic dumps */
+	private static ScheduledExecutorService dumper;
+
+	/*******************************************************************
+	 *
+	 * Constructor is private since the metrics are process wide
+	 *
+	 ******************************************************************/
+
+	private GameMetrics() {
+	}
+
+	/*******************************************************************
+	 * Returns a start time for a timed call, or 0 when metrics are off
+	 *
+	 * @return start time in nanoseconds
+	 ******************************************************************/
+
+	static long start() {
+		return ENABLED ? System.nanoTime() : 0;
+	}
+
+	/*******************************************************************
+	 * Records a roll
+	 *
+	 * @param start start time from start()
+	 ******************************************************************/
+
+	static void rolled(long start) {
+		ROLL_TIME.record(System.nanoTime() - start);
+		ROLLS.increment();
+	}
+
+	/*******************************************************************
+	 * Records a scored roll
+	 *
+	 * @param start start time from start()
+	 * @param rollScore score of the roll, 0 for a farkle
+	 ******************************************************************/
+
+	static void turned(long start, int rollScore) {
+		TURN_TIME.record(System.nanoTime() - start);
+		if(rollScore == 0)
+			FARKLES.increment();
+	}
+
+	/*******************************************************************
+	 * Records a pass of the dice
+	 *
+	 * @param start start time from start()
+	 * @param banked points banked by the turn
+	 * @param rolls rolls taken in the turn
+	 ******************************************************************/
+
+	static void passed(long start, int banked, int rolls) {
+		PASS_TIME.record(System.nanoTime() - start);
+		TURNS.increment();
+		TURN_LENGTH.record(rolls);
+		if(banked > 0)
+			BANKS.increment();
+	}
+
+	/*******************************************************************
+	 * Records a game won
+	 *
+	 * @param turns turns the game took
+	 ******************************************************************/
+
+	static void completed(int turns) {
+		GAMES.increment();
+		GAME_TURNS.add(turns);
+	}
+
+	/*******************************************************************
+	 * Records rendering text
+	 *
+	 * @param start start time from start()
+	 ******************************************************************/
+
+	static void rendered(long start) {
+		RENDER_TIME.record(System.nanoTime() - start);
+	}
+
+	/*******************************************************************
+	 * Returns the JMX view of the metrics
+	 *
+	 * @return metrics bean
+	 ******************************************************************/
+
+	public static GameMetrics getInstance() {
+		return INSTANCE;
+	}
+
+	/*******************************************************************
+	 * Registers the metrics with the platform MBean server, once
+	 *
+	 * @throws JMException if registration fails
+	 ******************************************************************/
+
+	public static synchronized void register() throws JMException {
+		MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+		ObjectName name = new ObjectName(OBJECT_NAME);
+		if(!server.isRegistered(name))
+			server.registerMBean(INSTANCE, name);
+	}
+
+	/*******************************************************************
+	 * Prints the report on a fixed period from a daemon thread
+	 *
+	 * @param period seconds between reports
+	 * @param out stream to print to
+	 * @return handle that stops the dump when cancelled
+	 ******************************************************************/
+
+	public static synchronized ScheduledFuture<?> startDump(long period,
+			PrintStream out) {
+		if(dumper == null) {
+			dumper = Executors.newSingleThreadScheduledExecutor(r -> {
+				Thread t = new Thread(r, "greed-metrics");
+				t.setDaemon(true);
+				return t;
+			});
+		}
+		return dumper.scheduleAtFixedRate(() -> out.println(report()),
+				period, period, TimeUnit.SECONDS);
+	}
+
+	/*******************************************************************
+	 * Returns every metric as text
+	 *
+	 * @return report
+	 ******************************************************************/
+
+	public static String report() {
+		if(!ENABLED)
+			return "Metrics disabled, start with -Dgreed.metrics=true";
+
+		return String.format("Rolls: %d  Farkles: %d  Turns: %d  " +
+				"Banks: %d  Games: %d%n" +
+				"Rolls per turn: %.2f  Turns per game: %.1f%n" +
+				"rollDice() ns: %s%n" +
+				"turn() ns: %s%n" +
+				"passDice() ns: %s%n" +
+				"render ns: %s",
+				ROLLS.sum(), FARKLES.sum(), TURNS.sum(), BANKS.sum(),
+				GAMES.sum(), INSTANCE.getMeanTurnLength(),
+				INSTANCE.getMeanGameLength(), ROLL_TIME, TURN_TIME,
+				PASS_TIME, RENDER_TIME);
+	}
+
+	/*******************************************************************
+	 * Returns whether metrics are being recorded
+	 *
+	 * @return true when enabled
+	 ******************************************************************/
+
+	@Override
+	public boolean isEnabled() {
+		return ENABLED;
+	}
+
+	/*******************************************************************
+	 * Returns the number of rolls
+	 *
+	 * @return rolls
+	 ******************************************************************/
+
+	@Override
+	public long getRolls() {
+		return ROLLS.sum();
+	}
+
+	/*******************************************************************
+	 * Returns the number of rolls that scored nothing
+	 *
+	 * @return farkles
+	 ******************************************************************/
+
+	@Override
+	public long getFarkles() {
+		return FARKLES.sum();
+	}
+
+	/*******************************************************************
+	 * Returns the number of turns that banked points
+	 *
+	 * @return banks
+	 ******************************************************************/
+
+	@Override
+	public long getBanks() {
+		return BANKS.sum();
+	}
+
+	/*******************************************************************
+	 * Returns the number of turns passed
+	 *
+	 * @return turns
+	 ******************************************************************/
+
+	@Override
+	public long getTurns() {
+		return TURNS.sum();
+	}
+
+	/*******************************************************************
+	 * Returns the number of games won
+	 *
+	 * @return games
+	 ******************************************************************/
+
+	@Override
+	public long getGamesCompleted() {
+		return GAMES.sum();
+	}
+
+	/*******************************************************************
+	 * Returns the mean number of rolls per turn
+	 *
+	 * @return rolls per turn
+	 ******************************************************************/
+
+	@Override
+	public double getMeanTurnLength() {
+		return TURN_LENGTH.getMean();
+	}
+
+	/*******************************************************************
+	 * Returns the mean number of turns per game won
+	 *
+	 * @return turns per game
+	 ******************************************************************/
+
+	@Override
+	public double getMeanGameLength() {
+		long games = GAMES.sum();
+		return games == 0 ? 0 : (double) GAME_TURNS.sum() / games;
+	}
+
+	/*******************************************************************
+	 * Returns the median time of rollDice()
+	 *
+	 * @return nanoseconds
+	 ******************************************************************/
+
+	@Override
+	public long getRollNanosP50() {
+		return ROLL_TIME.getPercentile(0.5);
+	}
+
+	/*******************************************************************
+	 * Returns the 99th percentile time of rollDice()
+	 *
+	 * @return nanoseconds
+	 ******************************************************************/
+
+	@Override
+	public long getRollNanosP99() {
+		return ROLL_TIME.getPercentile(0.99);
+	}
+
+	/*******************************************************************
+	 * Returns the median time of turn()
+	 *
+	 * @return nanoseconds
+	 ******************************************************************/
+
+	@Override
+	public long getTurnNanosP50() {
+		return TURN_TIME.getPercentile(0.5);
+	}
+
+	/*******************************************************************
+	 * Returns the 99th percentile time of turn()
+	 *
+	 * @return nanoseconds
+	 ******************************************************************/
+
+	@Override
+	public long getTurnNanosP99() {
+		return TURN_TIME.getPercentile(0.99);
+	}
+
+	/*******************************************************************
+	 * Returns the median time of passDice()
+	 *
+	 * @return nanoseconds
+	 ******************************************************************/
+
+	@Override
+	public long getPassNanosP50() {
+		return PASS_TIME.getPercentile(0.5);
+	}
+
+	/*******************************************************************
+	 * Returns the 99th percentile time of passDice()
+	 *
+	 * @return nanoseconds
+	 ******************************************************************/
+
+	@Override
+	public long getPassNanosP99() {
+		return PASS_TIME.getPercentile(0.99);
+	}
+
+	/*******************************************************************
+	 * Returns the total time spent scoring rolls in turn()
+	 *
+	 * @return nanoseconds
+	 ******************************************************************/
+
+	@Override
+	public long getTurnNanosTotal() {
+		return TURN_TIME.getSum();
+	}
+
+	/*******************************************************************
+	 * Returns the total time spent rendering dice and scores as text
+	 *
+	 * @return nanoseconds
+	 ******************************************************************/
+
+	@Override
+	public long getRenderNanosTotal() {
+		return RENDER_TIME.getSum();
+	}
+
+	/*******************************************************************
+	 * Returns every metric as text
+	 *
+	 * @return report
+	 ******************************************************************/
+
+	@Override
+	public String getReport() {
+		return report();
+	}
+
+	/*******************************************************************
+	 * Clears every metric
+	 ******************************************************************/
+
+	@Override
+	public void reset() {
+		ROLLS.reset();
+		FARKLES.reset();
+		BANKS.reset();
+		TURNS.reset();
+		GAMES.reset();
+		GAME_TURNS.reset();
+		ROLL_TIME.reset();
+		TURN_TIME.reset();
+		PASS_TIME.reset();
+		RENDER_TIME.reset();
+		TURN_LENGTH.reset();
+	}
+}
@@ -0,0 +1,154 @@
+package model;
+
+/***********************************************************************
+ * @author Matt Conflitti
+ * @version 1.006092015
+ *
+ * GameMetricsMBean is the JMX view of GameMetrics. Times are in
+ * nanoseconds.
+ **********************************************************************/
+
+public interface GameMetricsMBean {
+
+	/*******************************************************************
+	 * Returns whether metrics are being recorded
+	 *
+	 * @return true when enabled
+	 ******************************************************************/
+
+	boolean isEnabled();
+
+	/*******************************************************************
+	 * Returns the number of rolls
+	 *
+	 * @return rolls
+	 ******************************************************************/
+
+	long getRolls();
+
+	/*******************************************************************
+	 * Returns the number of rolls that scored nothing
+	 *
+	 * @return farkles
+	 ******************************************************************/
+
+	long getFarkles();
+
+	/*******************************************************************
+	 * Returns the number of turns that banked points
+	 *
+	 * @return banks
+	 ******************************************************************/
+
+	long getBanks();
+
+	/*******************************************************************
+	 * Returns the number of turns passed
+	 *
+	 * @return turns
+	 ******************************************************************/
+
+	long getTurns();
+
+	/*******************************************************************
+	 * Returns the number of games won
+	 *
+	 * @return games
+	 ******************************************************************/
+
+	long getGamesCompleted();
+
+	/*******************************************************************
+	 * Returns the mean number of rolls per turn
+	 *
+	 * @return rolls per turn
+	 ******************************************************************/
+
+	double getMeanTurnLength();
+
+	/*******************************************************************
+	 * Returns the mean number of turns per game won
+	 *
+	 * @return turns per game
+	 ******************************************************************/
+
+	double getMeanGameLength();
+
+	/*******************************************************************
+	 * Returns the median time of rollDice()
+	 *
+	 * @return nanoseconds
+	 ******************************************************************/
+
+	long getRollNanosP50();
+
+	/*******************************************************************
+	 * Returns the 99th percentile time of rollDice()
+	 *
+	 * @return nanoseconds
+	 ******************************************************************/
+
+	long getRollNanosP99();
+
+	/*******************************************************************
+	 * Returns the median time of turn()
+	 *
+	 * @return nanoseconds
+	 ******************************************************************/
+
+	long getTurnNanosP50();
+
+	/*******************************************************************
+	 * Returns the 99th percentile time of turn()
+	 *
+	 * @return nanoseconds
+	 ******************************************************************/
+
+	long getTurnNanosP99();
+
+	/*******************************************************************
+	 * Returns the median time of passDice()
+	 *
+	 * @return nanoseconds
+	 ******************************************************************/
+
+	long getPassNanosP50();
+
+	/*******************************************************************
+	 * Returns the 99th percentile time of passDice()
+	 *
+	 * @return nanoseconds
+	 ******************************************************************/
+
+	long getPassNanosP99();
+
+	/*******************************************************************
+	 * Returns the total time spent scoring rolls in turn()
+	 *
+	 * @return nanoseconds
+	 ******************************************************************/
+
+	long getTurnNanosTotal();
+
+	/*******************************************************************
+	 * Returns the total time spent rendering dice and scores as text
+	 *
+	 * @return nanoseconds
+	 ******************************************************************/
+
+	long getRenderNanosTotal();
+
+	/*******************************************************************
+	 * Returns every metric as text
+	 *
+	 * @return report
+	 ******************************************************************/
+
+	String getReport();
+
+	/*******************************************************************
+	 * Clears every metric
+	 ******************************************************************/
+
+	void reset();
+}
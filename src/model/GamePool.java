@@ -0,0 +1,86 @@
+package model;
+
+import java.util.ArrayDeque;
+
+/***********************************************************************
+ * @author Matt Conflitti
+ * @version 1.006092015
+ *
+ * GamePool keeps finished GreedGame instances for reuse so tight
+ * simulation loops do not allocate a game, its dice and its players for
+ * every game played. Each thread has its own pool, so acquiring and
+ * releasing never contends; a game must be released on the thread that
+ * acquired it, or is simply dropped for the garbage collector.
+ **********************************************************************/
+
+public final class GamePool {
+
+	/** games kept per thread */
+	public static final int CAPACITY = 16;
+
+	/** released games of the calling thread */
+	private static final ThreadLocal<ArrayDeque<GreedGame>> POOL =
+			ThreadLocal.withInitial(() -> new ArrayDeque<>(CAPACITY));
+
+	/*******************************************************************
+	 *
+	 * Constructor is private since the pool is only used statically
+	 *
+	 ******************************************************************/
+
+	private GamePool() {
+	}
+
+	/*******************************************************************
+	 * Returns a game ready to play, reusing a released game when the
+	 * calling thread has one. The game rolls from the default random
+	 * source, scores by the standard rules and has no listener.
+	 *
+	 * @param numPlayers number of players, at least 2
+	 * @param playerTurn starting player of the game
+	 * @param winScore winning score of the game
+	 * @return game in its starting state
+	 ******************************************************************/
+
+	public static GreedGame acquire(int numPlayers, int playerTurn,
+			int winScore) {
+		GreedGame game = POOL.get().pollFirst();
+		if(game == null) {
+			game = new GreedGame(playerTurn, winScore);
+			game.makePlayers(numPlayers);
+			return game;
+		}
+
+		if(game.getNumPlayers() != numPlayers)
+			game.makePlayers(numPlayers);
+		game.reset(playerTurn, winScore);
+		game.setRandom(null);
+		game.setRules(null);
+		return game;
+	}
+
+	/*******************************************************************
+	 * Gives a finished game back to the calling thread's pool. The
+	 * caller must not use the game afterwards.
+	 *
+	 * @param game game to reuse
+	 ******************************************************************/
+
+	public static void release(GreedGame game) {
+		ArrayDeque<GreedGame> pool = POOL.get();
+		if(pool.size() < CAPACITY) {
+			game.setListener(null);
+			pool.addFirst(game);
+		}
+	}
+
+	/*******************************************************************
+	 * Returns the number of games waiting in the calling thread's pool
+	 *
+	 * @return pooled games
+	 ******************************************************************/
+
+	public static int size() {
+		return POOL.get().size();
+	}
+}
@@ -1,5 +1,8 @@
 package model;
 
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
 /***********************************************************************
  * @author Matt Conflitti
  * @version 1.006092015
@@ -10,14 +13,23 @@ package model;
 
 public class GreedGame {
 
-	/** array stores Player objects */
+	/** array stores Player objects, views of the scores array */
 	private Player[] players;
 
+	/** game score of each player, indexed by id */
+	private int[] scores;
+
+	/** lowest id with a winning score, -1 while nobody has won */
+	private int winner;
+
+	/** id with the highest score, lowest id on ties */
+	private int leader;
+
 	/** array stores Die objects */
 	private Die[] dice;
 
-	/** array stores dice value frequencies */
-	private int[] freq;
+	/** ScoreTable key of the available dice, 3 bits per face count */
+	private int freqKey;
 
 	/** stores number of players in game */
 	private int numPlayers;
@@ -37,8 +49,38 @@ public class GreedGame {
 	/** how many dice are available */
 	private int diceAvail;
 
-	/** number of dice constant */
-	private final int NBR_OF_DICE = 6;
+	/** available dice, bit i set when die i is in play */
+	private int availMask;
+
+	/** dice that scored in the last roll, bit i for die i */
+	private int scored;
+
+	/** random source for dice rolls */
+	private RandomSource rng;
+
+	/** compiled scoring rules */
+	private ScoreTable table;
+
+	/** face values of all six dice, 3 bits each */
+	private int faces;
+
+	/** listener told about scored rolls and passes, may be null */
+	private GameListener listener;
+
+	/** rolls taken this turn, counted only with GameMetrics.ENABLED */
+	private int turnRolls;
+
+	/** turns taken this game, counted only with GameMetrics.ENABLED */
+	private int gameTurns;
+
+	/** reusable buffer for rendering into byte buffers */
+	private final StringBuilder render = new StringBuilder(128);
+
+	/** availability mask with every die available */
+	private static final int ALL_AVAIL = (1 << 6) - 1;
+
+	/** packed faces mask keeping the available dice, by availability */
+	private static final int[] AVAIL_FACES = availFaces();
 
 	/*******************************************************************
 	 * 
@@ -49,20 +91,55 @@ public class GreedGame {
 	 ******************************************************************/
 
 	public GreedGame(int playerTurn, int winScore) {
+		this(playerTurn, winScore, ThreadLocalRandomSource.INSTANCE);
+	}
+
+	/*******************************************************************
+	 * 
+	 * Constructor that sets the GreedGame to starting values and rolls
+	 * the dice from the given random source
+	 *  
+	 * @param playerTurn sets starting player of game
+	 * @param winScore sets winning score of game
+	 * @param rng random source for dice rolls
+	 ******************************************************************/
 
+	public GreedGame(int playerTurn, int winScore, RandomSource rng) {
+
+		this.rng = rng;
+		this.table = ScoreTable.STANDARD;
 		this.playerTurn = playerTurn;
 		this.winScore = winScore;
-		this.dice = new Die[NBR_OF_DICE];
-		this.freq = new int[NBR_OF_DICE];
+		this.dice = new Die[RuleSet.NBR_OF_DICE];
 		this.rollScore = 0;
 		this.turnScore = 0;
-		this.diceAvail = NBR_OF_DICE;
+		this.diceAvail = RuleSet.NBR_OF_DICE;
+		this.availMask = ALL_AVAIL;
 
 		//instantiate each die and set initial frequency
-		for(int i = 0; i<NBR_OF_DICE; i++){
+		for(int i = 0; i<RuleSet.NBR_OF_DICE; i++){
 			this.dice[i] = new Die();
-			this.freq[i] = 0;
+			this.faces |= 1 << (i*RandomSource.FACE_BITS);
+		}
+		this.freqKey = ScoreTable.rollKey(faces);
+	}
+
+	/*******************************************************************
+	 * Builds the packed faces mask of every availability mask, with
+	 * all three bits of each available die set
+	 * 
+	 * @return faces masks indexed by availability mask
+	 ******************************************************************/
+
+	private static int[] availFaces() {
+		int[] masks = new int[ALL_AVAIL+1];
+		for(int m = 0; m<masks.length; m++) {
+			for(int i = 0; i<6; i++) {
+				if((m & (1 << i)) != 0)
+					masks[m] |= 7 << (i*RandomSource.FACE_BITS);
+			}
 		}
+		return masks;
 	}
 
 	/*******************************************************************
@@ -81,10 +158,47 @@ public class GreedGame {
 		//updates class fields
 		this.numPlayers = num;
 		this.players = new Player[num];
+		this.scores = new int[num];
+		this.leader = 0;
+		this.winner = findWinner();
 
-		//instantiates Player objects in array
+		//instantiates Player views in array
 		for(int i = 0; i<numPlayers; i++){
-			this.players[i] = new Player(i);
+			this.players[i] = new Player(this, i);
+		}
+	}
+
+	/*******************************************************************
+	 * Restores the game to its starting state in place so it can be
+	 * played again without allocating. Scores, turn, dice and
+	 * frequencies are cleared; the players, random source and listener
+	 * are kept.
+	 * 
+	 * @param playerTurn sets starting player of game
+	 * @param winScore sets winning score of game
+	 ******************************************************************/
+
+	public void reset(int playerTurn, int winScore) {
+		this.playerTurn = playerTurn;
+		this.winScore = winScore;
+		this.rollScore = 0;
+		this.turnScore = 0;
+		this.faces = 0;
+		this.scored = 0;
+		this.turnRolls = 0;
+		this.gameTurns = 0;
+
+		for(int i = 0; i<RuleSet.NBR_OF_DICE; i++) {
+			dice[i].setFaceValue(1);
+			faces |= 1 << (i*RandomSource.FACE_BITS);
+		}
+		resetDiceAvail();
+		freqKey = ScoreTable.rollKey(faces);
+
+		if(scores != null) {
+			Arrays.fill(scores, 0);
+			leader = 0;
+			this.winner = findWinner();
 		}
 	}
 
@@ -98,6 +212,17 @@ public class GreedGame {
 		return players[playerTurn];
 	}
 
+	/*******************************************************************
+	 * Returns the player object with the given id.
+	 * 
+	 * @param id player id
+	 * @return player object from array at index of id
+	 ******************************************************************/
+
+	public Player getPlayer(int id) {
+		return players[id];
+	}
+
 	/*******************************************************************
 	 * Adds turn score to current player's existing score
 	 * 
@@ -105,10 +230,74 @@ public class GreedGame {
 	 ******************************************************************/
 
 	public void addCurrPlayerScore(int score) {
-		for(Player p : players) {
-			if(p.getId() == playerTurn)
-				p.setGameScore(p.getGameScore()+score);
+		setScore(playerTurn, scores[playerTurn]+score);
+	}
+
+	/*******************************************************************
+	 * Returns a player's game score
+	 * 
+	 * @param id player id
+	 * @return game score
+	 ******************************************************************/
+
+	public int getScore(int id) {
+		return scores[id];
+	}
+
+	/*******************************************************************
+	 * Sets a player's game score, keeping the leader and winner up to
+	 * date. Raising a score is constant time; lowering the leader's or
+	 * winner's score rescans the players.
+	 * 
+	 * @param id player id
+	 * @param score game score to set
+	 ******************************************************************/
+
+	public void setScore(int id, int score) {
+		int old = scores[id];
+		scores[id] = score;
+
+		if(score >= old) {
+			int best = scores[leader];
+			if(score > best || (score == best && id < leader))
+				leader = id;
+			if(score >= winScore && (winner < 0 || id < winner))
+				winner = id;
+		} else {
+			if(id == leader)
+				leader = findLeader();
+			if(id == winner)
+				winner = findWinner();
+		}
+	}
+
+	/*******************************************************************
+	 * Helper method finds the player with the highest score
+	 * 
+	 * @return leading id, lowest on ties
+	 ******************************************************************/
+
+	private int findLeader() {
+		int best = 0;
+		for(int i = 1; i<scores.length; i++) {
+			if(scores[i] > scores[best])
+				best = i;
 		}
+		return best;
+	}
+
+	/*******************************************************************
+	 * Helper method finds the lowest id with a winning score
+	 * 
+	 * @return winning id, or -1
+	 ******************************************************************/
+
+	private int findWinner() {
+		for(int i = 0; i<scores.length; i++) {
+			if(scores[i] >= winScore)
+				return i;
+		}
+		return -1;
 	}
 
 	/*******************************************************************
@@ -117,29 +306,53 @@ public class GreedGame {
 	 ******************************************************************/
 
 	public void passDice() {
+		long start = GameMetrics.start();
+		int banked = turnScore;
+		boolean won = winner >= 0;
 
 		addCurrPlayerScore(turnScore);
 
 		//reset turnScore and dice availability
 		turnScore = 0;
-		diceAvail = 6;
 		resetDiceAvail();
 
 		//step turn forward
+		int passer = playerTurn;
 		if(playerTurn+1 == players.length)
 			playerTurn = 0;
 		else {
 			playerTurn++;
 		}
+
+		if(GameMetrics.ENABLED) {
+			GameMetrics.passed(start, banked, turnRolls);
+			turnRolls = 0;
+			gameTurns++;
+			if(!won && winner >= 0)
+				GameMetrics.completed(gameTurns);
+		}
+
+		if(listener != null)
+			listener.passed(this, passer);
 	}
 
 	/*******************************************************************
-	 * Rolls dice and gets new random face values for each
+	 * Rolls dice and gets new random face values for each. All six
+	 * faces come from a single draw of the random source.
 	 ******************************************************************/
 
 	public void rollDice() {
+		long start = GameMetrics.start();
+		int faces = this.faces = rng.rollSix();
+		freqKey = ScoreTable.rollKey(faces & AVAIL_FACES[availMask]);
 		for(int i = 0; i<dice.length; i++) {
-			dice[i].roll();
+			dice[i].setFaceValue(faces & 7);
+			faces >>>= RandomSource.FACE_BITS;
+		}
+
+		if(GameMetrics.ENABLED) {
+			GameMetrics.rolled(start);
+			turnRolls++;
 		}
 	}
 
@@ -150,20 +363,45 @@ public class GreedGame {
 	 ******************************************************************/
 
 	public String displayDice() {
-		String str = "";
-		for(int i = 0; i<dice.length; i++) {
+		return appendDice(new StringBuilder(24)).toString();
+	}
+
+	/*******************************************************************
+	 * Appends the dice values, as shown by displayDice(), to a caller
+	 * supplied builder without allocating
+	 * 
+	 * @param sb builder to append to
+	 * @return sb
+	 ******************************************************************/
+
+	public StringBuilder appendDice(StringBuilder sb) {
+		long start = GameMetrics.start();
 
-			//only shows dice that are currently available
-			if(dice[i].getIsAvailable())
-				str += "" + dice[i] + " ";
+		//only shows dice that are currently available
+		for(int m = availMask; m != 0; m &= m - 1) {
+			int i = Integer.numberOfTrailingZeros(m);
+			sb.append(dice[i].getFaceValue()).append(' ');
 		}
 
 		for(int i=0; i<6-diceAvail; i++) {
-			str+="  ";
+			sb.append("  ");
 		}
 
-		return str;
+		if(GameMetrics.ENABLED)
+			GameMetrics.rendered(start);
+		return sb;
+	}
+
+	/*******************************************************************
+	 * Writes the dice values, as shown by displayDice(), to a byte
+	 * buffer as ASCII
+	 * 
+	 * @param out buffer to write to
+	 ******************************************************************/
 
+	public void writeDice(ByteBuffer out) {
+		render.setLength(0);
+		writeAscii(appendDice(render), out);
 	}
 
 	/*******************************************************************
@@ -174,92 +412,79 @@ public class GreedGame {
 	 ******************************************************************/
 
 	public String displayTurn() {
-		String str ="Roll Score: " + getRollScore() + "\t" +
-				"Turn Score: " + getTurnScore() + "\t" +
-				"Game Score: " + getCurrPlayer().getGameScore();
-
-		return str;
+		return appendTurn(new StringBuilder(64)).toString();
 	}
 
 	/*******************************************************************
-	 * Helper method to sort the values of the available dice into 
-	 * numerical categories to be later manipulated and scored
+	 * Appends the scores, as shown by displayTurn(), to a caller
+	 * supplied builder without allocating
+	 * 
+	 * @param sb builder to append to
+	 * @return sb
 	 ******************************************************************/
 
-	private void setFreq() {
+	public StringBuilder appendTurn(StringBuilder sb) {
+		long start = GameMetrics.start();
+		sb.append("Roll Score: ").append(rollScore)
+				.append("\tTurn Score: ").append(turnScore)
+				.append("\tGame Score: ")
+				.append(scores[playerTurn]);
 
-		//first reset all frequencies to 0
-		for(int i = 0; i<freq.length; i++) {
-			freq[i] = 0;
-		}
+		if(GameMetrics.ENABLED)
+			GameMetrics.rendered(start);
+		return sb;
+	}
 
-		//for each dice check availability and then get value and sort
-		for(int i=0; i<dice.length;i++) {
-			if(dice[i].getIsAvailable()) {
-				int val = dice[i].getFaceValue();
-				if(val == 1)
-					freq[0]++;
-				if(val == 2)
-					freq[1]++;
-				if(val == 3)
-					freq[2]++;
-				if(val == 4)
-					freq[3]++;
-				if(val == 5)
-					freq[4]++;
-				if(val == 6)
-					freq[5]++;
-			}
-		}
+	/*******************************************************************
+	 * Writes the scores, as shown by displayTurn(), to a byte buffer as
+	 * ASCII
+	 * 
+	 * @param out buffer to write to
+	 ******************************************************************/
+
+	public void writeTurn(ByteBuffer out) {
+		render.setLength(0);
+		writeAscii(appendTurn(render), out);
 	}
 
 	/*******************************************************************
-	 * Helper method resets diceAvail to 6 and changes each Die object's
-	 * isAvailable field to true
+	 * Helper method makes all six dice available
 	 ******************************************************************/
 
 	private void resetDiceAvail() {
-		diceAvail = 6;
-		for(int i = 0; i<diceAvail; i++) {
-			dice[i].setIsAvailable(true);
-		}
+		setAvailMask(ALL_AVAIL);
 	}
 
 	/*******************************************************************
-	 * Helper method updates the die object's availability based on
-	 * the diceAvail field's int value
+	 * Helper method takes the dice that scored out of play, making all
+	 * six available again when none are left
 	 ******************************************************************/
 
 	private void setDiceAvail() {
+		int mask = availMask & ~scored;
+		setAvailMask(mask == 0 ? ALL_AVAIL : mask);
+	}
 
-		//get current dice availability count
-		int currAvail = 0;
-		for(int i = 0; i<dice.length; i++) {
-			if(dice[i].getIsAvailable())
-				currAvail++;
-		}
-
-		//if diceAvail is negative set to zero
-		if(diceAvail < 0)
-			diceAvail = 0;
+	/*******************************************************************
+	 * Helper method sets the availability mask and count, updating only
+	 * the Die objects whose availability changed and moving their faces
+	 * in or out of the frequency key
+	 * 
+	 * @param mask available dice, bit i for die i
+	 ******************************************************************/
 
-		//if no diceAvail reset them all to available
-		if(diceAvail == 0) {
-			resetDiceAvail();
-		} else {
+	private void setAvailMask(int mask) {
+		for(int m = availMask ^ mask; m != 0; m &= m - 1) {
+			int i = Integer.numberOfTrailingZeros(m);
+			boolean avail = (mask & (1 << i)) != 0;
+			dice[i].setIsAvailable(avail);
 
-			//calculate how many should be turned off
-			//loop through and turn off correct amount
-			for(int i = 0; i<currAvail-diceAvail; i++) {
-				int j =0;
-				for(j = i; j<dice.length;j++){
-					if(dice[j].getIsAvailable())
-						break;
-				}
-				dice[j].setIsAvailable(false);
-			}
+			int face = (faces >>> (i*RandomSource.FACE_BITS)) & 7;
+			int count = 1 << ((face-1) * ScoreTable.BITS_PER_FACE);
+			freqKey += avail ? count : -count;
 		}
-
+		availMask = mask;
+		diceAvail = Integer.bitCount(mask);
 	}
 
 	/*******************************************************************
@@ -267,9 +492,9 @@ public class GreedGame {
 	 ******************************************************************/
 
 	public void turn() {
+		long start = GameMetrics.start();
 
-		//sets frequencies, calcs score, sets dice visibility
-		setFreq();
+		//calcs score from the frequencies, sets dice visibility
 		rollScore();
 		setDiceAvail();
 
@@ -279,6 +504,11 @@ public class GreedGame {
 		else
 			setTurnScore(rollScore+turnScore);
 
+		if(GameMetrics.ENABLED)
+			GameMetrics.turned(start, rollScore);
+
+		if(listener != null)
+			listener.turned(this);
 	}
 
 	/*******************************************************************
@@ -289,199 +519,54 @@ public class GreedGame {
 	 ******************************************************************/
 
 	public String displayGameScore() {
-		String str = "Game Scores ==> ";
-
-		for(Player p : players) {
-			str += "Player " + (p.getId()+1) + ": " + p.getGameScore()+
-					"\t";
-		}
-
-		return str;
-	}
-
-	/*******************************************************************
-	 * Checks if dice are in a straight pattern and returns the given
-	 * score.
-	 * 1200 pts
-	 * 
-	 * @return score value to add if method returns score
-	 ******************************************************************/
-
-	private int straightScore() {
-		int score = 0;
-		if(freq[0] == 1 && freq[1] == 1 && 
-				freq[2] == 1 && freq[3] == 1 && 
-				freq[4] == 1 && freq[5] == 1){
-			diceAvail -= 6;
-			score+= 1200;
-		}
-
-		return score;	
-	}
-
-	/*******************************************************************
-	 * Checks if dice have three pairs of numbers and returns score
-	 * 800 pts
-	 * 
-	 * @return score value to add if method returns score
-	 ******************************************************************/
-
-	private int pairScore() {
-		int pairs = 0, score = 0;
-		for(int i = 0; i<freq.length; i++) {
-			if(freq[i] == 2) {
-				pairs++;
-			}
-		}
-		if(pairs == 3){
-			diceAvail -= 6;
-			score+= 800;
-		}
-
-
-		return score;
+		return appendGameScore(new StringBuilder(64)).toString();
 	}
 
 	/*******************************************************************
-	 * Checks if dice have six of a kind and returns score
-	 * (facevalue triple score times 8)
+	 * Appends the game scores, as shown by displayGameScore(), to a
+	 * caller supplied builder without allocating
 	 * 
-	 * @return score value to add if method returns score
+	 * @param sb builder to append to
+	 * @return sb
 	 ******************************************************************/
 
-	private int sixOfKindScore() {
-		int score = 0;
-		for(int i = 0; i<freq.length; i++) {
-			if(i == 0) {
-				if(freq[i] == 6) {
-
-					//if die facevalue is 1 give different score
-					score+= 8000;
-					diceAvail -= 6;
-				}
-			}
+	public StringBuilder appendGameScore(StringBuilder sb) {
+		long start = GameMetrics.start();
+		sb.append("Game Scores ==> ");
 
-			else if(freq[i] == 6) {
-				score+= ((i+1)*100)*8;
-				diceAvail -= 6;
-			}
+		for(int i = 0; i<scores.length; i++) {
+			sb.append("Player ").append(i+1).append(": ")
+				.append(scores[i]).append('\t');
 		}
 
-		return score;
-
+		if(GameMetrics.ENABLED)
+			GameMetrics.rendered(start);
+		return sb;
 	}
 
 	/*******************************************************************
-	 * Checks if dice have five of a kind and returns score
-	 * (facevalue triple score times 4)
+	 * Writes the game scores, as shown by displayGameScore(), to a byte
+	 * buffer as ASCII
 	 * 
-	 * @return score value to add if method returns score
+	 * @param out buffer to write to
 	 ******************************************************************/
 
-	private int fiveOfKindScore() {
-		int score = 0;
-		for(int i = 0; i<freq.length; i++) {
-			if(i == 0) {
-				if(freq[i] == 5) {
-					score+= 4000;
-					diceAvail -= 5;
-				}
-			}
-
-			else if(freq[i] == 5) {
-				score+= ((i+1)*100)*4;
-				diceAvail -= 5;
-			}
-		}
-
-		return score;
+	public void writeGameScore(ByteBuffer out) {
+		render.setLength(0);
+		writeAscii(appendGameScore(render), out);
 	}
 
 	/*******************************************************************
-	 * Checks if dice have four of a kind and returns score
-	 * (facevalue triple score times 2)
+	 * Helper method copies rendered ASCII text into a byte buffer
 	 * 
-	 * @return score value to add if method returns score
+	 * @param text text to copy
+	 * @param out buffer to write to
 	 ******************************************************************/
 
-	private int fourOfKindScore() {
-		int score =0;
-		for(int i = 0; i<freq.length; i++) {
-			if(i == 0) {
-				if(freq[i] == 4) {
-					score+= 2000;
-					diceAvail -= 4;
-				}
-			}
-
-			else if(freq[i] == 4) {
-				score+= ((i+1)*100)*2;
-				diceAvail -= 4;
-			}
+	private static void writeAscii(CharSequence text, ByteBuffer out) {
+		for(int i = 0; i<text.length(); i++) {
+			out.put((byte) text.charAt(i));
 		}
-		return score;
-	}
-
-	/*******************************************************************
-	 * Checks if dice have three of a kind and returns score 
-	 * (facevalue times 100 points unless facevalue is 1, then 1000 pts)
-	 * 
-	 * @return score value to add if method returns score
-	 ******************************************************************/
-
-	private int threeOfKindScore() {
-		int score = 0;
-		for(int i = 0; i<freq.length; i++) {
-			if(i == 0) {
-				if(freq[i] == 3) {
-					score+= 1000;
-					diceAvail -= 3;
-				}
-			}
-
-			else if(freq[i] == 3) {
-				score+= (i+1)*100;
-				diceAvail -= 3;
-			}
-		}
-
-		return score;
-	}
-
-	/*******************************************************************
-	 * Checks if dice contains 1 or 2 die with facevalue of 1 and 
-	 * returns score (100 points per die)
-	 * 
-	 * @return score value to add if method returns score
-	 ******************************************************************/
-
-	private int oneScore() {
-		int score = 0;
-		if(freq[0] < 3 && freq[0] > 0 && pairScore() == 0 && 
-				straightScore() == 0) {
-			score+= freq[0] * 100;
-			diceAvail -= freq[0];
-		}
-
-		return score;
-	}
-
-	/*******************************************************************
-	 * Checks if dice contains 1 or 2 die with facevalue of 5 and 
-	 * returns score (50 points per die)
-	 * 
-	 * @return score value to add if method returns score
-	 ******************************************************************/
-
-	private int fiveScore() {
-		int score = 0;
-		if(freq[4] < 3 && freq[4] > 0 && pairScore() == 0 && 
-				straightScore() == 0) {
-			score+= freq[4] * 50;
-			diceAvail -= freq[4];
-		}
-
-		return score;
 	}
 
 	/*******************************************************************
@@ -505,14 +590,27 @@ public class GreedGame {
 	}
 
 	/*******************************************************************
-	 * Calculate the roll score by calling all of the scoreing methods
-	 * and adding the returned integers
+	 * Calculate the roll score with a single lookup of the current
+	 * frequencies in the precomputed score table, and find the dice
+	 * that scored
 	 ******************************************************************/
 
 	public void rollScore() {
-		rollScore = straightScore() + pairScore() + sixOfKindScore() +
-				fiveOfKindScore() + fourOfKindScore() + 
-				threeOfKindScore() + oneScore() + fiveScore();
+		int key = freqKey;
+		rollScore = table.score(key);
+		scored = ScoreTable.scoringDice(table.scoringFaces(key), faces,
+				availMask);
+	}
+
+	/*******************************************************************
+	 * Getter method to return the frequencies of the available dice's
+	 * faces, packed as a ScoreTable key
+	 * 
+	 * @return packed frequency key
+	 ******************************************************************/
+
+	public int getFreqKey() {
+		return freqKey;
 	}
 
 	/*******************************************************************
@@ -532,13 +630,7 @@ public class GreedGame {
 	 ******************************************************************/
 
 	public boolean isWon() {
-		boolean won = false;
-		for(Player p : players) {
-			if(p.getGameScore() >= winScore) {
-				won = true;
-			}
-		}
-		return won;
+		return winner >= 0;
 	}
 
 	/*******************************************************************
@@ -548,12 +640,17 @@ public class GreedGame {
 	 ******************************************************************/
 
 	public int getWinnerId() {
-		for(Player p : players) {
-			if(p.getGameScore() >= winScore) {
-				return p.getId();
-			}
-		}
-		return -1;
+		return winner;
+	}
+
+	/*******************************************************************
+	 * Getter method to return id of the player with the highest score
+	 * 
+	 * @return leading id, lowest on ties
+	 ******************************************************************/
+
+	public int getLeaderId() {
+		return leader;
 	}
 
 	/*******************************************************************
@@ -624,6 +721,8 @@ public class GreedGame {
 
 	public void setWinScore(int winScore) {
 		this.winScore = winScore;
+		if(scores != null)
+			winner = findWinner();
 	}
 
 	/*******************************************************************
@@ -636,6 +735,91 @@ public class GreedGame {
 		return diceAvail;
 	}
 
+	/*******************************************************************
+	 * Getter method to return which dice are available
+	 * 
+	 * @return availMask bit i set when die i is in play
+	 ******************************************************************/
+
+	public int getAvailMask() {
+		return availMask;
+	}
+
+	/*******************************************************************
+	 * Setter method to set the random source used to roll the dice.
+	 * A seeded source makes the game repeatable from its seed.
+	 * 
+	 * @param rng random source, or null for ThreadLocalRandomSource
+	 ******************************************************************/
+
+	public void setRandom(RandomSource rng) {
+		this.rng = rng == null ? ThreadLocalRandomSource.INSTANCE : rng;
+	}
+
+	/*******************************************************************
+	 * Setter method to set the scoring rules, compiling them the first
+	 * time any game uses them
+	 * 
+	 * @param rules rule set, or null for the standard rules
+	 ******************************************************************/
+
+	public void setRules(RuleSet rules) {
+		this.table = rules == null ? ScoreTable.STANDARD : rules.compile();
+	}
+
+	/*******************************************************************
+	 * Getter method to return the scoring rules
+	 * 
+	 * @return rules rule set
+	 ******************************************************************/
+
+	public RuleSet getRules() {
+		return table.getRules();
+	}
+
+	/*******************************************************************
+	 * Setter method to set the listener told about every scored roll
+	 * and pass
+	 * 
+	 * @param listener listener, or null for none
+	 ******************************************************************/
+
+	public void setListener(GameListener listener) {
+		this.listener = listener;
+	}
+
+	/*******************************************************************
+	 * Getter method to return the listener told about every scored roll
+	 * and pass
+	 * 
+	 * @return listener, or null for none
+	 ******************************************************************/
+
+	public GameListener getListener() {
+		return listener;
+	}
+
+	/*******************************************************************
+	 * Getter method to return the face values of all six dice packed 3
+	 * bits each, first die in the lowest bits
+	 * 
+	 * @return packed faces
+	 ******************************************************************/
+
+	public int getFaces() {
+		return faces;
+	}
+
+	/*******************************************************************
+	 * Getter method to return the random source used to roll the dice
+	 * 
+	 * @return rng random source
+	 ******************************************************************/
+
+	public RandomSource getRandom() {
+		return rng;
+	}
+
 	/*******************************************************************
 	 * Method used for testing to explicitly set each dice value to
 	 * test scoring
@@ -655,6 +839,12 @@ public class GreedGame {
 		dice[3].setFaceValue(d);
 		dice[4].setFaceValue(e);
 		dice[5].setFaceValue(f);
+
+		faces = 0;
+		for(int i = 0; i<dice.length; i++) {
+			faces |= dice[i].getFaceValue() << (i*RandomSource.FACE_BITS);
+		}
+		freqKey = ScoreTable.rollKey(faces & AVAIL_FACES[availMask]);
 	}
 
 }
@@ -0,0 +1,178 @@
+package model;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/***********************************************************************
+ * @author Matt Conflitti
+ * @version 1.006092015
+ *
+ * LatencyHistogram counts durations into log-linear buckets in the
+ * style of an HDR histogram: values below 32 get a bucket each, and
+ * every power of two above that is split into 16 buckets, so any value
+ * up to 2^63 is kept to within about 6% in under a thousand buckets.
+ * Buckets are LongAdders, so many threads can record at once without
+ * contending.
+ **********************************************************************/
+
+public class LatencyHistogram {
+
+	/** bits of a value kept below its leading bit */
+	private static final int SUB_BITS = 4;
+
+	/** buckets per power of two */
+	private static final int SUB_BUCKETS = 1 << SUB_BITS;
+
+	/** values below this get a bucket each */
+	private static final int LINEAR = SUB_BUCKETS * 2;
+
+	/** leading bit position of the smallest log-linear value */
+	private static final int FIRST_EXP = SUB_BITS + 1;
+
+	/** number of buckets */
+	private static final int BUCKETS = LINEAR + (63 - FIRST_EXP) * SUB_BUCKETS;
+
+	/** count per bucket */
+	private final LongAdder[] counts;
+
+	/** number of values recorded */
+	private final LongAdder total = new LongAdder();
+
+	/** sum of values recorded */
+	private final LongAdder sum = new LongAdder();
+
+	/*******************************************************************
+	 *
+	 * Constructor that creates an empty histogram
+	 *
+	 ******************************************************************/
+
+	public LatencyHistogram() {
+		counts = new LongAdder[BUCKETS];
+		for(int i = 0; i<BUCKETS; i++) {
+			counts[i] = new LongAdder();
+		}
+	}
+
+	/*******************************************************************
+	 * Records a non-negative value, negative values count as zero
+	 *
+	 * @param value value to record
+	 ******************************************************************/
+
+	public void record(long value) {
+		if(value < 0)
+			value = 0;
+		counts[bucket(value)].increment();
+		total.increment();
+		sum.add(value);
+	}
+
+	/*******************************************************************
+	 * Helper method returns the bucket of a value
+	 *
+	 * @param value non-negative value
+	 * @return bucket index
+	 ******************************************************************/
+
+	private static int bucket(long value) {
+		if(value < LINEAR)
+			return (int) value;
+		int exp = 63 - Long.numberOfLeadingZeros(value);
+		int sub = (int) (value >>> (exp - SUB_BITS)) & (SUB_BUCKETS - 1);
+		return LINEAR + (exp - FIRST_EXP) * SUB_BUCKETS + sub;
+	}
+
+	/*******************************************************************
+	 * Helper method returns the smallest value counted in a bucket
+	 *
+	 * @param bucket bucket index
+	 * @return lowest value of the bucket
+	 ******************************************************************/
+
+	private static long lowest(int bucket) {
+		if(bucket < LINEAR)
+			return bucket;
+		int exp = (bucket - LINEAR) / SUB_BUCKETS + FIRST_EXP;
+		int sub = (bucket - LINEAR) % SUB_BUCKETS;
+		return (long) (SUB_BUCKETS + sub) << (exp - SUB_BITS);
+	}
+
+	/*******************************************************************
+	 * Returns the value below which a fraction of the recorded values
+	 * fall, to within the width of its bucket
+	 *
+	 * @param fraction fraction between 0 and 1
+	 * @return value at the fraction, 0 if nothing was recorded
+	 ******************************************************************/
+
+	public long getPercentile(double fraction) {
+		long n = total.sum();
+		if(n == 0)
+			return 0;
+
+		long rank = Math.max(1, (long) Math.ceil(fraction * n));
+		long seen = 0;
+		for(int i = 0; i<BUCKETS; i++) {
+			seen += counts[i].sum();
+			if(seen >= rank)
+				return lowest(i);
+		}
+		return lowest(BUCKETS - 1);
+	}
+
+	/*******************************************************************
+	 * Getter method to return the number of values recorded
+	 *
+	 * @return count
+	 ******************************************************************/
+
+	public long getCount() {
+		return total.sum();
+	}
+
+	/*******************************************************************
+	 * Getter method to return the mean of the values recorded
+	 *
+	 * @return mean, 0 if nothing was recorded
+	 ******************************************************************/
+
+	public double getMean() {
+		long n = total.sum();
+		return n == 0 ? 0 : (double) sum.sum() / n;
+	}
+
+	/*******************************************************************
+	 * Getter method to return the sum of the values recorded
+	 *
+	 * @return sum
+	 ******************************************************************/
+
+	public long getSum() {
+		return sum.sum();
+	}
+
+	/*******************************************************************
+	 * Clears every count. Values recorded while resetting may be lost.
+	 ******************************************************************/
+
+	public void reset() {
+		for(LongAdder c : counts) {
+			c.reset();
+		}
+		total.reset();
+		sum.reset();
+	}
+
+	/*******************************************************************
+	 * Returns a string representation of this histogram
+	 *
+	 * @return string form of this object
+	 ******************************************************************/
+
+	public String toString() {
+		return String.format("n=%d mean=%.0f p50=%d p90=%d p99=%d p99.9=%d",
+				getCount(), getMean(), getPercentile(0.5),
+				getPercentile(0.9), getPercentile(0.99),
+				getPercentile(0.999));
+	}
+}
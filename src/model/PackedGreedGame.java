@@ -0,0 +1,358 @@
+package model;
+
+/***********************************************************************
+ * @author Matt Conflitti
+ * @version 1.006092015
+ *
+ * PackedGreedGame follows the same rules as GreedGame but keeps its
+ * state in primitives so millions of games can be held at once. The six
+ * face values (3 bits each, first die lowest) and the availability mask
+ * (6 bits above the faces) share one long, and player scores live in an
+ * int array. The random source is passed to rollDice() rather than
+ * stored so a game is only a few dozen bytes. The score table is
+ * shared, so house rules cost nothing per game.
+ **********************************************************************/
+
+public class PackedGreedGame {
+
+	/** bits used per face */
+	public static final int FACE_BITS = RandomSource.FACE_BITS;
+
+	/** bits of the packed dice holding the face values */
+	public static final long FACES =
+			(1L << (RuleSet.NBR_OF_DICE*FACE_BITS)) - 1;
+
+	/** shift of the availability mask in the packed dice */
+	public static final int AVAIL_SHIFT = RuleSet.NBR_OF_DICE*FACE_BITS;
+
+	/** availability mask with every die available */
+	public static final int ALL_AVAIL = (1 << RuleSet.NBR_OF_DICE) - 1;
+
+	/** packed faces mask keeping the available dice, by availability */
+	private static final int[] AVAIL_FACES = new int[ALL_AVAIL+1];
+
+	static {
+		for(int m = 0; m<AVAIL_FACES.length; m++) {
+			for(int i = 0; i<RuleSet.NBR_OF_DICE; i++) {
+				if((m & (1 << i)) != 0)
+					AVAIL_FACES[m] |= 7 << (i*FACE_BITS);
+			}
+		}
+	}
+
+	/** face values and availability mask */
+	private long dice;
+
+	/** game score of each player */
+	private final int[] scores;
+
+	/** the current roll score */
+	private int rollScore;
+
+	/** current turn score */
+	private int turnScore;
+
+	/** tracks player turn number */
+	private int playerTurn;
+
+	/** winning score */
+	private int winScore;
+
+	/** id of the winning player, -1 until the game is won */
+	private int winner;
+
+	/** score table of the rules being played */
+	private ScoreTable table = ScoreTable.STANDARD;
+
+	/*******************************************************************
+	 *
+	 * Constructor that sets the game to starting values with all dice
+	 * available and showing 1
+	 *
+	 * @param numPlayers number of players, at least 2
+	 * @param playerTurn sets starting player of game
+	 * @param winScore sets winning score of game
+	 ******************************************************************/
+
+	public PackedGreedGame(int numPlayers, int playerTurn, int winScore) {
+		if(numPlayers < 2)
+			throw new IllegalArgumentException();
+
+		this.scores = new int[numPlayers];
+		reset(playerTurn, winScore);
+	}
+
+	/*******************************************************************
+	 * Restores the starting state in place
+	 *
+	 * @param playerTurn sets starting player of game
+	 * @param winScore sets winning score of game
+	 ******************************************************************/
+
+	public void reset(int playerTurn, int winScore) {
+		this.playerTurn = playerTurn;
+		this.winScore = winScore;
+		this.rollScore = 0;
+		this.turnScore = 0;
+		this.winner = -1;
+		this.dice = ((long) ALL_AVAIL << AVAIL_SHIFT) | 0111111L;
+		for(int i = 0; i<scores.length; i++) {
+			scores[i] = 0;
+		}
+	}
+
+	/*******************************************************************
+	 * Rolls all six dice from a single draw of the random source
+	 *
+	 * @param rng random source to draw from
+	 ******************************************************************/
+
+	public void rollDice(RandomSource rng) {
+		dice = (dice & ~FACES) | (rng.rollSix() & 0xFFFFFFFFL);
+	}
+
+	/*******************************************************************
+	 * Scores the available dice, takes the scoring dice out of play and
+	 * updates the turn score, exactly as GreedGame.turn() does
+	 ******************************************************************/
+
+	public void turn() {
+		int mask = getAvailMask();
+
+		//frequency key of the available dice, two small table lookups
+		int key = ScoreTable.rollKey((int) dice & AVAIL_FACES[mask]);
+
+		rollScore = table.score(key);
+
+		//turn off the dice that scored, or all back on if none left
+		mask &= ~ScoreTable.scoringDice(table.scoringFaces(key),
+				(int) (dice & FACES), mask);
+		if(mask == 0)
+			mask = ALL_AVAIL;
+		dice = (dice & FACES) | ((long) mask << AVAIL_SHIFT);
+
+		//updates turn score
+		if(rollScore == 0)
+			turnScore = 0;
+		else
+			turnScore += rollScore;
+	}
+
+	/*******************************************************************
+	 * Banks the turn score for the current player, makes all dice
+	 * available and moves play to the next player
+	 ******************************************************************/
+
+	public void passDice() {
+		int score = scores[playerTurn] += turnScore;
+		if(winner < 0 && score >= winScore)
+			winner = playerTurn;
+
+		turnScore = 0;
+		dice |= (long) ALL_AVAIL << AVAIL_SHIFT;
+
+		if(++playerTurn == scores.length)
+			playerTurn = 0;
+	}
+
+	/*******************************************************************
+	 * Setter method to set the scoring rules, kept across reset()
+	 *
+	 * @param rules rule set, or null for the standard rules
+	 ******************************************************************/
+
+	public void setRules(RuleSet rules) {
+		this.table = rules == null ? ScoreTable.STANDARD : rules.compile();
+	}
+
+	/*******************************************************************
+	 * Getter method to return boolean if game is won or not
+	 *
+	 * @return true once a player reaches the winning score
+	 ******************************************************************/
+
+	public boolean isWon() {
+		return winner >= 0;
+	}
+
+	/*******************************************************************
+	 * Getter method to return id of winning player
+	 *
+	 * @return winning id, or -1 if nobody has won
+	 ******************************************************************/
+
+	public int getWinnerId() {
+		return winner;
+	}
+
+	/*******************************************************************
+	 * Returns the face value of a die
+	 *
+	 * @param die die index 0-5
+	 * @return face value 1-6
+	 ******************************************************************/
+
+	public int getFace(int die) {
+		return (int) (dice >>> (die*FACE_BITS)) & 7;
+	}
+
+	/*******************************************************************
+	 * Returns whether a die is available
+	 *
+	 * @param die die index 0-5
+	 * @return true if the die is in play
+	 ******************************************************************/
+
+	public boolean isAvailable(int die) {
+		return (getAvailMask() & (1 << die)) != 0;
+	}
+
+	/*******************************************************************
+	 * Getter method to return the availability mask, bit i set when die
+	 * i is available
+	 *
+	 * @return availability mask
+	 ******************************************************************/
+
+	public int getAvailMask() {
+		return (int) (dice >>> AVAIL_SHIFT) & ALL_AVAIL;
+	}
+
+	/*******************************************************************
+	 * Getter method to return the packed faces and availability mask
+	 *
+	 * @return packed dice
+	 ******************************************************************/
+
+	public long getDice() {
+		return dice;
+	}
+
+	/*******************************************************************
+	 * Getter method to return how many dice available
+	 *
+	 * @return available dice
+	 ******************************************************************/
+
+	public int getDiceAvail() {
+		return Integer.bitCount(getAvailMask());
+	}
+
+	/*******************************************************************
+	 * Explicitly sets each dice value, used for testing scoring. Like
+	 * Die.setFaceValue(), a value outside 1-6 is ignored and the die
+	 * keeps its face.
+	 *
+	 * @param a facevalue to set
+	 * @param b facevalue to set
+	 * @param c facevalue to set
+	 * @param d facevalue to set
+	 * @param e facevalue to set
+	 * @param f facevalue to set
+	 ******************************************************************/
+
+	public void setDice(int a, int b, int c, int d, int e, int f) {
+		setFace(0, a);
+		setFace(1, b);
+		setFace(2, c);
+		setFace(3, d);
+		setFace(4, e);
+		setFace(5, f);
+	}
+
+	/*******************************************************************
+	 * Helper method sets the face of one die, ignoring values outside
+	 * 1-6 so the packed faces always hold valid 3-bit values
+	 *
+	 * @param die die index 0-5
+	 * @param value face value to set
+	 ******************************************************************/
+
+	private void setFace(int die, int value) {
+		if(value > 0 && value <= 6) {
+			int shift = die*FACE_BITS;
+			dice = (dice & ~(7L << shift)) | ((long) value << shift);
+		}
+	}
+
+	/*******************************************************************
+	 * Getter method to return roll score
+	 *
+	 * @return rollScore
+	 ******************************************************************/
+
+	public int getRollScore() {
+		return rollScore;
+	}
+
+	/*******************************************************************
+	 * Getter method to return turn score
+	 *
+	 * @return turnScore turn score
+	 ******************************************************************/
+
+	public int getTurnScore() {
+		return turnScore;
+	}
+
+	/*******************************************************************
+	 * Setter method to set turn score
+	 *
+	 * @param turnScore score to set
+	 ******************************************************************/
+
+	public void setTurnScore(int turnScore) {
+		this.turnScore = turnScore;
+	}
+
+	/*******************************************************************
+	 * Getter method to return a player's game score
+	 *
+	 * @param id player id
+	 * @return game score
+	 ******************************************************************/
+
+	public int getScore(int id) {
+		return scores[id];
+	}
+
+	/*******************************************************************
+	 * Getter method to return the current player's game score
+	 *
+	 * @return game score
+	 ******************************************************************/
+
+	public int getCurrScore() {
+		return scores[playerTurn];
+	}
+
+	/*******************************************************************
+	 * Getter method to return number of players in game
+	 *
+	 * @return number of players
+	 ******************************************************************/
+
+	public int getNumPlayers() {
+		return scores.length;
+	}
+
+	/*******************************************************************
+	 * Getter method to return which player's turn it is
+	 *
+	 * @return playerTurn player turn
+	 ******************************************************************/
+
+	public int getPlayerTurn() {
+		return playerTurn;
+	}
+
+	/*******************************************************************
+	 * Getter method to return winning score
+	 *
+	 * @return winScore winning score
+	 ******************************************************************/
+
+	public int getWinScore() {
+		return winScore;
+	}
+}
@@ -1,7 +1,9 @@
 package model;
 
 /**
- * The Player class represents a player in the Greed game.
+ * The Player class represents a player in the Greed game. Players made
+ * by a GreedGame are views whose game score lives in the game's score
+ * array.
  * 
  * @author Nandigam
  *
@@ -20,6 +22,9 @@ public class Player {
 	/** how many games player won */
 	private int gamesWon;
 	
+	/** game holding this player's score, or null */
+	private final GreedGame game;
+	
 	
 	/**
 	 * Constructs a new Player with the specified id.
@@ -27,6 +32,18 @@ public class Player {
 	 * @param id player's id
 	 */
 	public Player(int id) {
+		this(null, id);
+	}
+	
+	/**
+	 * Constructs a Player that reads and writes its game score in a
+	 * game.
+	 * 
+	 * @param game game holding the score, or null
+	 * @param id player's id
+	 */
+	Player(GreedGame game, int id) {
+		this.game = game;
 		this.id = id;
 	}
 
@@ -81,7 +98,7 @@ public class Player {
 	 * @return player's score in the game
 	 */
 	public int getGameScore() {
-		return gameScore;
+		return game == null ? gameScore : game.getScore(id);
 	}
 	
 	/**
@@ -90,7 +107,10 @@ public class Player {
 	 * @param score value used to set the game score of player
 	 */
 	public void setGameScore(int score) {
-		this.gameScore = score;
+		if (game == null)
+			this.gameScore = score;
+		else
+			game.setScore(id, score);
 	}
 		
 	/**
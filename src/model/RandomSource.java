@@ -0,0 +1,65 @@
+package model;
+
+/***********************************************************************
+ * @author Matt Conflitti
+ * @version 1.006092015
+ * 
+ * RandomSource supplies the random bits used to roll dice. Seedable
+ * implementations make games replayable, and giving every thread its
+ * own source keeps rolls free of contention.
+ **********************************************************************/
+
+public interface RandomSource {
+
+	/** bits used per face in a packed roll of six dice */
+	int FACE_BITS = 3;
+
+	/*******************************************************************
+	 * Returns the next 64 random bits from this source
+	 * 
+	 * @return random long
+	 ******************************************************************/
+
+	long nextLong();
+
+	/*******************************************************************
+	 * Rolls a single die
+	 * 
+	 * @return face value between 1 and 6
+	 ******************************************************************/
+
+	default int nextFace() {
+		return (int) sixTimesHigh(nextLong()) + 1;
+	}
+
+	/*******************************************************************
+	 * Rolls six dice from a single 64-bit draw. Each face is taken from
+	 * the high bits of the draw multiplied by six, and the low bits are
+	 * kept for the next face. Six faces only use about 16 of the 64
+	 * bits, so the bias is negligible.
+	 * 
+	 * @return six face values packed 3 bits each, first die lowest
+	 ******************************************************************/
+
+	default int rollSix() {
+		long x = nextLong();
+		int faces = 0;
+		for(int i = 0; i<6; i++) {
+			faces |= ((int) sixTimesHigh(x) + 1) << (i*FACE_BITS);
+			x *= 6;
+		}
+		return faces;
+	}
+
+	/*******************************************************************
+	 * Returns the high 64 bits of the unsigned product x * 6, a value
+	 * between 0 and 5
+	 * 
+	 * @param x unsigned 64-bit value
+	 * @return high bits of the product
+	 ******************************************************************/
+
+	static long sixTimesHigh(long x) {
+		return Math.multiplyHigh(x, 6) + ((x >> 63) & 6);
+	}
+}
@@ -0,0 +1,268 @@
+package model;
+
+import java.util.Arrays;
+
+/***********************************************************************
+ * @author Matt Conflitti
+ * @version 1.006092015
+ *
+ * RollOdds holds the exact outcome distribution of rolling 1 to 6 dice
+ * under a score table. Every one of the 6^k rolls of k dice is scored
+ * once when the odds are built, then bust probabilities, expected
+ * scores and score thresholds are answered by array lookup or binary
+ * search. Only distinct outcomes are stored, so house rules with large
+ * point values cost no more memory than the standard rules.
+ *
+ * Outcomes are grouped by roll score and the dice available afterwards,
+ * using the same hot dice rule as GreedGame: when every die has been
+ * used all six become available again.
+ **********************************************************************/
+
+public class RollOdds {
+
+	/** odds under the standard Game of Greed rules */
+	public static final RollOdds STANDARD = new RollOdds(ScoreTable.STANDARD);
+
+	/** number of possible rolls of k dice, 6^k */
+	private final long[] rolls;
+
+	/** probability of a zero-point roll of k dice */
+	private final double[] bust;
+
+	/** expected roll score of k dice, counting busts as zero */
+	private final double[] mean;
+
+	/** distinct roll scores of k dice, ascending from 0 */
+	private final int[][] tailScore;
+
+	/** probability of scoring at least tailScore[k][i] with k dice */
+	private final double[][] tailProb;
+
+	/** score of each scoring outcome of k dice */
+	private final int[][] outScore;
+
+	/** dice available after each scoring outcome of k dice */
+	private final int[][] outNext;
+
+	/** probability of each scoring outcome of k dice */
+	private final double[][] outProb;
+
+	/*******************************************************************
+	 *
+	 * Constructor that enumerates every roll of 1 to 6 dice under a
+	 * score table
+	 *
+	 * @param table score table to score rolls with
+	 ******************************************************************/
+
+	public RollOdds(ScoreTable table) {
+		rolls = new long[RuleSet.NBR_OF_DICE+1];
+		bust = new double[RuleSet.NBR_OF_DICE+1];
+		mean = new double[RuleSet.NBR_OF_DICE+1];
+		tailScore = new int[RuleSet.NBR_OF_DICE+1][];
+		tailProb = new double[RuleSet.NBR_OF_DICE+1][];
+		outScore = new int[RuleSet.NBR_OF_DICE+1][];
+		outNext = new int[RuleSet.NBR_OF_DICE+1][];
+		outProb = new double[RuleSet.NBR_OF_DICE+1][];
+
+		for(int k = 1; k<=RuleSet.NBR_OF_DICE; k++) {
+			enumerate(table, k);
+		}
+	}
+
+	/*******************************************************************
+	 * Helper method scores all 6^k rolls of k dice and fills in the
+	 * tables for k
+	 *
+	 * @param table score table to score rolls with
+	 * @param k number of dice rolled
+	 ******************************************************************/
+
+	private void enumerate(ScoreTable table, int k) {
+		int n = 1;
+		for(int i = 0; i<k; i++) {
+			n *= 6;
+		}
+		rolls[k] = n;
+
+		//score every roll, coding it as score and dice available after
+		final int stride = RuleSet.NBR_OF_DICE+1;
+		int[] code = new int[n];
+		long total = 0;
+		for(int r = 0; r<n; r++) {
+			int key = 0;
+			for(int i = 0, x = r; i<k; i++, x /= 6) {
+				key += 1 << ((x % 6) * ScoreTable.BITS_PER_FACE);
+			}
+			int score = table.score(key);
+			int next = k - table.used(key);
+			if(next <= 0)
+				next = RuleSet.NBR_OF_DICE;
+			code[r] = score * stride + (score == 0 ? 0 : next);
+			total += score;
+		}
+
+		//sorting brings equal outcomes together, nothing is sized by
+		//the score values
+		Arrays.sort(code);
+		int groups = 0;
+		int scores = 0;
+		for(int r = 0; r<n; r++) {
+			if(r > 0 && code[r] == code[r-1])
+				continue;
+			if(code[r] >= stride)
+				groups++;
+			if(r == 0 || code[r] / stride != code[r-1] / stride)
+				scores++;
+		}
+
+		outScore[k] = new int[groups];
+		outNext[k] = new int[groups];
+		outProb[k] = new double[groups];
+		tailScore[k] = new int[scores];
+		tailProb[k] = new double[scores];
+		mean[k] = (double) total / n;
+
+		//one pass over the runs of equal codes
+		for(int r = 0, g = 0, t = 0; r<n; ) {
+			int c = code[r];
+			int end = r;
+			while(end < n && code[end] == c) {
+				end++;
+			}
+
+			if(c < stride) {
+				bust[k] = (double) (end - r) / n;
+			} else {
+				outScore[k][g] = c / stride;
+				outNext[k][g] = c % stride;
+				outProb[k][g] = (double) (end - r) / n;
+				g++;
+			}
+
+			//this roll and every one after it scores at least as much
+			if(r == 0 || c / stride != code[r-1] / stride) {
+				tailScore[k][t] = c / stride;
+				tailProb[k][t] = (double) (n - r) / n;
+				t++;
+			}
+			r = end;
+		}
+	}
+
+	/*******************************************************************
+	 * Returns the probability that rolling k dice scores zero points
+	 *
+	 * @param k dice rolled, 1-6
+	 * @return bust probability
+	 ******************************************************************/
+
+	public double bustProbability(int k) {
+		return bust[k];
+	}
+
+	/*******************************************************************
+	 * Returns the expected score of a roll of k dice, counting a bust
+	 * as zero
+	 *
+	 * @param k dice rolled, 1-6
+	 * @return expected roll score
+	 ******************************************************************/
+
+	public double expectedScore(int k) {
+		return mean[k];
+	}
+
+	/*******************************************************************
+	 * Returns the probability that rolling k dice scores at least x
+	 * points
+	 *
+	 * @param k dice rolled, 1-6
+	 * @param x score threshold
+	 * @return probability of scoring x or more
+	 ******************************************************************/
+
+	public double probabilityAtLeast(int k, int x) {
+		if(x <= 0)
+			return 1;
+
+		//first distinct score of at least x
+		int[] scores = tailScore[k];
+		int i = Arrays.binarySearch(scores, x);
+		if(i < 0)
+			i = -i - 1;
+		return i == scores.length ? 0 : tailProb[k][i];
+	}
+
+	/*******************************************************************
+	 * Returns the expected turn score after rolling once more with k
+	 * dice and a turn score at stake, losing it all on a bust
+	 *
+	 * @param k dice rolled, 1-6
+	 * @param turnScore turn score before the roll
+	 * @return expected turn score after the roll
+	 ******************************************************************/
+
+	public double expectedAfterRoll(int k, int turnScore) {
+		return (1 - bust[k]) * turnScore + mean[k];
+	}
+
+	/*******************************************************************
+	 * Returns the number of possible rolls of k dice
+	 *
+	 * @param k dice rolled, 1-6
+	 * @return 6^k
+	 ******************************************************************/
+
+	public long getRolls(int k) {
+		return rolls[k];
+	}
+
+	/*******************************************************************
+	 * Returns the number of distinct scoring outcomes of k dice, each a
+	 * pair of roll score and dice available afterwards
+	 *
+	 * @param k dice rolled, 1-6
+	 * @return number of scoring outcomes
+	 ******************************************************************/
+
+	public int getOutcomeCount(int k) {
+		return outScore[k].length;
+	}
+
+	/*******************************************************************
+	 * Returns the roll score of a scoring outcome
+	 *
+	 * @param k dice rolled, 1-6
+	 * @param i outcome index
+	 * @return roll score
+	 ******************************************************************/
+
+	public int getOutcomeScore(int k, int i) {
+		return outScore[k][i];
+	}
+
+	/*******************************************************************
+	 * Returns the dice available after a scoring outcome
+	 *
+	 * @param k dice rolled, 1-6
+	 * @param i outcome index
+	 * @return dice available, 1-6
+	 ******************************************************************/
+
+	public int getOutcomeNext(int k, int i) {
+		return outNext[k][i];
+	}
+
+	/*******************************************************************
+	 * Returns the probability of a scoring outcome
+	 *
+	 * @param k dice rolled, 1-6
+	 * @param i outcome index
+	 * @return probability
+	 ******************************************************************/
+
+	public double getOutcomeProbability(int k, int i) {
+		return outProb[k][i];
+	}
+}
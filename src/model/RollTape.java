@@ -0,0 +1,178 @@
+package model;
+
+/***********************************************************************
+ * @author Matt Conflitti
+ * @version 1.006092015
+ *
+ * RollTape is a replayable random source. The dice of every turn of a
+ * game come from their own stream, derived from the tape's seed and
+ * the turn number, so rewinding replays the same dice turn by turn.
+ * This gives common random numbers when comparing strategies: both
+ * strategies face the same luck and only their decisions differ. Since
+ * each turn starts its own stream, a strategy rolling one more or one
+ * fewer time in a turn does not shift the dice of any later turn.
+ *
+ * The tape moves to the next turn's stream when it is told the dice
+ * were passed, so it has to be the listener of the game it rolls for.
+ * Without one, every roll comes from the first turn's stream, which is
+ * still replayable.
+ *
+ * A rewound tape can also be played antithetically, where every die
+ * shows 7 minus the recorded face. A high roll on the tape becomes a
+ * low roll on the replay, so averaging a game with its antithetic
+ * replay cancels part of the luck.
+ *
+ * Instances are not thread safe; give each thread its own.
+ **********************************************************************/
+
+public class RollTape implements RandomSource, GameListener {
+
+	/** packed roll with every face at 7, xor gives the opposite faces */
+	private static final int OPPOSITE = 0777777;
+
+	/** mask for a single face inside a packed roll */
+	private static final int FACE_MASK = (1 << FACE_BITS) - 1;
+
+	/** generator of the current turn's stream */
+	private final Xoshiro256Random rng;
+
+	/** seed of the tape */
+	private long seed;
+
+	/** turns passed since the tape was rewound */
+	private int turn;
+
+	/** true to play the opposite of every draw */
+	private boolean antithetic;
+
+	/*******************************************************************
+	 *
+	 * Constructor that creates a tape at its start
+	 *
+	 * @param seed seed of the tape
+	 ******************************************************************/
+
+	public RollTape(long seed) {
+		rng = new Xoshiro256Random(0);
+		setSeed(seed);
+	}
+
+	/*******************************************************************
+	 * Switches to a different tape and moves to its start
+	 *
+	 * @param seed seed of the new tape
+	 ******************************************************************/
+
+	public void setSeed(long seed) {
+		this.seed = seed;
+		rewind(false);
+	}
+
+	/*******************************************************************
+	 * Moves back to the start of the tape
+	 *
+	 * @param antithetic true to play the opposite of every draw
+	 ******************************************************************/
+
+	public void rewind(boolean antithetic) {
+		this.antithetic = antithetic;
+		this.turn = 0;
+		rng.setSeed(turnSeed(seed, 0));
+	}
+
+	/*******************************************************************
+	 * Helper method derives the seed of a turn's stream
+	 *
+	 * @param seed seed of the tape
+	 * @param turn turn number
+	 * @return seed of the turn's stream
+	 ******************************************************************/
+
+	private static long turnSeed(long seed, int turn) {
+		long z = seed + turn * 0xD1B54A32D192ED03L;
+		z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+		z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+		return z ^ (z >>> 31);
+	}
+
+	/*******************************************************************
+	 * Returns the next 64 bits of the tape, complemented when playing
+	 * antithetically
+	 *
+	 * @return random long
+	 ******************************************************************/
+
+	@Override
+	public long nextLong() {
+		long x = rng.nextLong();
+		return antithetic ? ~x : x;
+	}
+
+	/*******************************************************************
+	 * Rolls six dice from the next draw of the tape. Played
+	 * antithetically, each die shows 7 minus its recorded face.
+	 *
+	 * @return six face values packed 3 bits each, first die lowest
+	 ******************************************************************/
+
+	@Override
+	public int rollSix() {
+		int faces = rng.rollSix();
+		//7 - f equals f ^ 7 for every face from 1 to 6
+		return antithetic ? faces ^ OPPOSITE : faces;
+	}
+
+	/*******************************************************************
+	 * Rolls a single die from the next draw of the tape
+	 *
+	 * @return face value between 1 and 6
+	 ******************************************************************/
+
+	@Override
+	public int nextFace() {
+		return rollSix() & FACE_MASK;
+	}
+
+	/*******************************************************************
+	 * Ignores scored rolls
+	 *
+	 * @param game game that was scored
+	 ******************************************************************/
+
+	@Override
+	public void turned(GreedGame game) {
+	}
+
+	/*******************************************************************
+	 * Moves to the next turn's stream
+	 *
+	 * @param game game the dice were passed in
+	 * @param player id of the player who passed the dice
+	 ******************************************************************/
+
+	@Override
+	public void passed(GreedGame game, int player) {
+		rng.setSeed(turnSeed(seed, ++turn));
+	}
+
+	/*******************************************************************
+	 * Getter method to return the turns passed since the tape was
+	 * rewound
+	 *
+	 * @return turn number
+	 ******************************************************************/
+
+	public int getTurn() {
+		return turn;
+	}
+
+	/*******************************************************************
+	 * Getter method to return whether the tape plays antithetically
+	 *
+	 * @return true when every die shows the opposite face
+	 ******************************************************************/
+
+	public boolean isAntithetic() {
+		return antithetic;
+	}
+}
@@ -0,0 +1,338 @@
+package model;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Properties;
+
+/***********************************************************************
+ * @author Matt Conflitti
+ * @version 1.006092015
+ *
+ * RuleSet describes the scoring values of a Game of Greed variant. A
+ * rule set is compiled once into a ScoreTable, so a house-rule game
+ * scores each roll with the same single lookup as the standard rules.
+ *
+ * Rule sets are read from properties files. Every key is optional and
+ * defaults to the standard rules:
+ *
+ *   straight=1200        one die of every face
+ *   threePairs=800       three pairs
+ *   tripleOnes=1000      three ones
+ *   triplePerFace=100    three of any other face, times the face
+ *   fourOfAKind=2        multiplier of the triple value for four
+ *   fiveOfAKind=4        multiplier of the triple value for five
+ *   sixOfAKind=8         multiplier of the triple value for six
+ *   singleOne=100        each one outside a triple
+ *   singleFive=50        each five outside a triple
+ *   dice=6               dice per roll, only 6 is supported
+ **********************************************************************/
+
+public final class RuleSet {
+
+	/** number of dice constant */
+	public static final int NBR_OF_DICE = 6;
+
+	/** the standard Game of Greed rules */
+	public static final RuleSet STANDARD = new RuleSet(1200, 800, 1000,
+			100, 2, 4, 8, 100, 50);
+
+	/** largest score a table entry can hold */
+	static final int MAX_SCORE = (1 << 23) - 1;
+
+	/** largest points value a rule can give */
+	private static final int MAX_POINTS = 100000;
+
+	/** largest multiplier a rule can give */
+	private static final int MAX_MULTIPLIER = 64;
+
+	/** points for a straight */
+	private final int straight;
+
+	/** points for three pairs */
+	private final int threePairs;
+
+	/** points for three ones */
+	private final int tripleOnes;
+
+	/** points per face value for three of any other face */
+	private final int triplePerFace;
+
+	/** multipliers of the triple value, indexed by dice matched 3-6 */
+	private final int[] ofKind;
+
+	/** points for each single one */
+	private final int singleOne;
+
+	/** points for each single five */
+	private final int singleFive;
+
+	/** compiled table, built on first use */
+	private volatile ScoreTable table;
+
+	/*******************************************************************
+	 *
+	 * Constructor that sets every scoring value
+	 *
+	 * @param straight points for a straight
+	 * @param threePairs points for three pairs
+	 * @param tripleOnes points for three ones
+	 * @param triplePerFace points per face value for other triples
+	 * @param four multiplier for four of a kind
+	 * @param five multiplier for five of a kind
+	 * @param six multiplier for six of a kind
+	 * @param singleOne points for each single one
+	 * @param singleFive points for each single five
+	 ******************************************************************/
+
+	public RuleSet(int straight, int threePairs, int tripleOnes,
+			int triplePerFace, int four, int five, int six, int singleOne,
+			int singleFive) {
+		this.straight = straight;
+		this.threePairs = threePairs;
+		this.tripleOnes = tripleOnes;
+		this.triplePerFace = triplePerFace;
+		this.ofKind = new int[] {0, 0, 0, 1, four, five, six};
+		this.singleOne = singleOne;
+		this.singleFive = singleFive;
+
+		//bounds keep every roll's sum from overflowing; totals above
+		//MAX_SCORE are caught when the table is compiled
+		for(int v : new int[] {straight, threePairs, tripleOnes,
+				triplePerFace, singleOne, singleFive}) {
+			if(v < 0 || v > MAX_POINTS)
+				throw new IllegalArgumentException("Points out of range");
+		}
+		for(int v : new int[] {four, five, six}) {
+			if(v < 0 || v > MAX_MULTIPLIER)
+				throw new IllegalArgumentException(
+						"Multiplier out of range");
+		}
+	}
+
+	/*******************************************************************
+	 * Reads a rule set from a properties file
+	 *
+	 * @param file properties file
+	 * @return rule set
+	 * @throws IOException if the file cannot be read
+	 ******************************************************************/
+
+	public static RuleSet load(Path file) throws IOException {
+		Properties props = new Properties();
+		try(Reader in = Files.newBufferedReader(file)) {
+			props.load(in);
+		}
+		return fromProperties(props);
+	}
+
+	/*******************************************************************
+	 * Creates a rule set from properties, using the standard value for
+	 * every missing key
+	 *
+	 * @param props scoring values
+	 * @return rule set
+	 ******************************************************************/
+
+	public static RuleSet fromProperties(Properties props) {
+		if(get(props, "dice", NBR_OF_DICE) != NBR_OF_DICE)
+			throw new IllegalArgumentException(
+					"Only " + NBR_OF_DICE + " dice are supported");
+
+		RuleSet std = STANDARD;
+		return new RuleSet(
+				get(props, "straight", std.straight),
+				get(props, "threePairs", std.threePairs),
+				get(props, "tripleOnes", std.tripleOnes),
+				get(props, "triplePerFace", std.triplePerFace),
+				get(props, "fourOfAKind", std.ofKind[4]),
+				get(props, "fiveOfAKind", std.ofKind[5]),
+				get(props, "sixOfAKind", std.ofKind[6]),
+				get(props, "singleOne", std.singleOne),
+				get(props, "singleFive", std.singleFive));
+	}
+
+	/*******************************************************************
+	 * Helper method reads an int property
+	 *
+	 * @param props properties
+	 * @param key property name
+	 * @param def value when the property is missing
+	 * @return property value
+	 ******************************************************************/
+
+	private static int get(Properties props, String key, int def) {
+		String value = props.getProperty(key);
+		if(value == null)
+			return def;
+		try {
+			return Integer.parseInt(value.trim());
+		} catch(NumberFormatException e) {
+			throw new IllegalArgumentException(
+					"Bad value for " + key + ": " + value);
+		}
+	}
+
+	/*******************************************************************
+	 * Returns the score table for these rules, compiling it the first
+	 * time it is needed
+	 *
+	 * @return compiled score table
+	 * @throws IllegalArgumentException if a roll scores more than a
+	 * table entry can hold
+	 ******************************************************************/
+
+	public ScoreTable compile() {
+		if(this == STANDARD)
+			return ScoreTable.STANDARD;
+
+		ScoreTable t = table;
+		if(t == null) {
+			synchronized(this) {
+				t = table;
+				if(t == null)
+					table = t = new ScoreTable(this);
+			}
+		}
+		return t;
+	}
+
+	/*******************************************************************
+	 * Returns the points for a straight
+	 *
+	 * @return points
+	 ******************************************************************/
+
+	public int getStraight() {
+		return straight;
+	}
+
+	/*******************************************************************
+	 * Returns the points for three pairs
+	 *
+	 * @return points
+	 ******************************************************************/
+
+	public int getThreePairs() {
+		return threePairs;
+	}
+
+	/*******************************************************************
+	 * Returns the points for three of a face
+	 *
+	 * @param face face value 1-6
+	 * @return points
+	 ******************************************************************/
+
+	public int getTriple(int face) {
+		return face == 1 ? tripleOnes : face * triplePerFace;
+	}
+
+	/*******************************************************************
+	 * Returns the multiplier of the triple value for matching dice
+	 *
+	 * @param count dice matched, 3-6
+	 * @return multiplier
+	 ******************************************************************/
+
+	public int getMultiplier(int count) {
+		return ofKind[count];
+	}
+
+	/*******************************************************************
+	 * Returns the points for each single one
+	 *
+	 * @return points
+	 ******************************************************************/
+
+	public int getSingleOne() {
+		return singleOne;
+	}
+
+	/*******************************************************************
+	 * Returns the points for each single five
+	 *
+	 * @return points
+	 ******************************************************************/
+
+	public int getSingleFive() {
+		return singleFive;
+	}
+
+	/*******************************************************************
+	 * Checks whether another object is a rule set with the same scoring
+	 * values
+	 *
+	 * @param o object to compare
+	 * @return true if every scoring value matches
+	 ******************************************************************/
+
+	@Override
+	public boolean equals(Object o) {
+		if(this == o)
+			return true;
+		if(!(o instanceof RuleSet))
+			return false;
+
+		RuleSet r = (RuleSet) o;
+		return straight == r.straight && threePairs == r.threePairs &&
+				tripleOnes == r.tripleOnes &&
+				triplePerFace == r.triplePerFace &&
+				Arrays.equals(ofKind, r.ofKind) &&
+				singleOne == r.singleOne && singleFive == r.singleFive;
+	}
+
+	/*******************************************************************
+	 * Returns a hash of the scoring values. It is the same on every
+	 * run, so it can name files solved for these rules.
+	 *
+	 * @return hash code
+	 ******************************************************************/
+
+	@Override
+	public int hashCode() {
+		return Arrays.hashCode(values());
+	}
+
+	/*******************************************************************
+	 * Returns every scoring value in the order the constructor takes
+	 * them
+	 *
+	 * @return scoring values
+	 ******************************************************************/
+
+	int[] values() {
+		return new int[] {straight, threePairs, tripleOnes, triplePerFace,
+				ofKind[4], ofKind[5], ofKind[6], singleOne, singleFive};
+	}
+
+	/*******************************************************************
+	 * Creates a rule set from scoring values in the order the
+	 * constructor takes them
+	 *
+	 * @param v scoring values
+	 * @return rule set
+	 ******************************************************************/
+
+	static RuleSet fromValues(int[] v) {
+		return new RuleSet(v[0], v[1], v[2], v[3], v[4], v[5], v[6], v[7],
+				v[8]);
+	}
+
+	/*******************************************************************
+	 * Returns the rules as properties, in the format load() reads
+	 *
+	 * @return str rule set
+	 ******************************************************************/
+
+	public String toString() {
+		return "straight=" + straight + "\nthreePairs=" + threePairs +
+				"\ntripleOnes=" + tripleOnes + "\ntriplePerFace=" +
+				triplePerFace + "\nfourOfAKind=" + ofKind[4] +
+				"\nfiveOfAKind=" + ofKind[5] + "\nsixOfAKind=" + ofKind[6] +
+				"\nsingleOne=" + singleOne + "\nsingleFive=" + singleFive +
+				"\ndice=" + NBR_OF_DICE + "\n";
+	}
+}
@@ -0,0 +1,389 @@
+package model;
+
+/***********************************************************************
+ * @author Matt Conflitti
+ * @version 1.006092015
+ *
+ * ScoreTable precomputes the roll score and the number of dice consumed
+ * for every possible frequency vector of 0-6 dice so a roll can be
+ * scored with a single array lookup. Frequency vectors are packed into
+ * a key using 3 bits per face (face 1 in the lowest bits).
+ *
+ * A table is compiled from a RuleSet, so house-rule variants score at
+ * the same speed as the standard rules. A combination a rule set makes
+ * worth 0 points does not score, so its dice are not used either.
+ *
+ * For batch work the table is also indexed directly by packed roll
+ * (up to six faces 3 bits each, first die lowest, 0 for a die not
+ * rolled), so scoring a roll is one load with no key to build.
+ **********************************************************************/
+
+public final class ScoreTable {
+
+	/** number of faces on a die */
+	public static final int FACES = 6;
+
+	/** bits used per face count in a packed key */
+	public static final int BITS_PER_FACE = 3;
+
+	/** mask for a single face count inside a packed key */
+	public static final int FACE_MASK = (1 << BITS_PER_FACE) - 1;
+
+	/** face mask with every face set */
+	public static final int ALL_FACES = (1 << FACES) - 1;
+
+	/** number of distinct packed keys */
+	public static final int KEY_SPACE = 1 << (BITS_PER_FACE * FACES);
+
+	/** bits of a packed roll */
+	public static final int ROLL_BITS = BITS_PER_FACE * FACES;
+
+	/** partial key of every packed group of three dice */
+	private static final int[] HALF_KEYS = halfKeys();
+
+	/** table built from the standard Game of Greed rules */
+	public static final ScoreTable STANDARD =
+			new ScoreTable(RuleSet.STANDARD);
+
+	/** rules the table was compiled from */
+	private final RuleSet rules;
+
+	/** packed entries, roll score in the high bits, dice used below */
+	private final int[] entries;
+
+	/** faces whose dice all scored, bit f-1 for face f */
+	private final byte[] scoring;
+
+	/** packed entry of every packed roll, 0 for invalid faces */
+	private final int[] byRoll;
+
+	/*******************************************************************
+	 *
+	 * Builds the table by scoring every frequency vector of at most
+	 * six dice under a rule set. Use RuleSet.compile() to share one
+	 * table per rule set.
+	 *
+	 * @param rules scoring values
+	 ******************************************************************/
+
+	ScoreTable(RuleSet rules) {
+		this.rules = rules;
+		entries = new int[KEY_SPACE];
+		scoring = new byte[KEY_SPACE];
+		int[] freq = new int[FACES];
+		fill(freq, 0, 0);
+
+		byRoll = new int[1 << ROLL_BITS];
+		for(int roll = 0; roll<byRoll.length; roll++) {
+			//a face of 7 has all three bits of its group set
+			if((roll & (roll >>> 1) & (roll >>> 2) & 0111111) == 0)
+				byRoll[roll] = entries[rollKey(roll)];
+		}
+	}
+
+	/*******************************************************************
+	 * Builds the partial keys of every packed group of three dice.
+	 * Faces 0 and 7 add nothing.
+	 *
+	 * @return partial keys indexed by 9 bits of a packed roll
+	 ******************************************************************/
+
+	private static int[] halfKeys() {
+		int[] half = new int[1 << (3*BITS_PER_FACE)];
+		for(int h = 0; h<half.length; h++) {
+			for(int d = 0; d<3; d++) {
+				int face = (h >>> (d*BITS_PER_FACE)) & FACE_MASK;
+				if(face >= 1 && face <= FACES)
+					half[h] += 1 << ((face-1) * BITS_PER_FACE);
+			}
+		}
+		return half;
+	}
+
+	/*******************************************************************
+	 * Recursively enumerates frequency vectors and stores each one's
+	 * score and dice used
+	 *
+	 * @param freq frequency vector being built
+	 * @param face face currently being assigned a count
+	 * @param dice number of dice assigned so far
+	 ******************************************************************/
+
+	private void fill(int[] freq, int face, int dice) {
+		if(face == FACES) {
+			int[] mask = new int[1];
+			int score = score(freq, mask);
+			if(score < 0 || score > RuleSet.MAX_SCORE)
+				throw new IllegalArgumentException("Roll scores too much");
+
+			//every die showing a scoring face is used
+			int used = 0;
+			for(int i = 0; i<FACES; i++) {
+				if((mask[0] & (1 << i)) != 0)
+					used += freq[i];
+			}
+			entries[key(freq)] = (score << 8) | used;
+			scoring[key(freq)] = (byte) mask[0];
+			return;
+		}
+
+		for(int n = 0; dice + n <= FACES; n++) {
+			freq[face] = n;
+			fill(freq, face+1, dice+n);
+		}
+		freq[face] = 0;
+	}
+
+	/*******************************************************************
+	 * Packs a frequency vector into a table key
+	 *
+	 * @param freq count of dice showing each face, face 1 first
+	 * @return packed key
+	 ******************************************************************/
+
+	public static int key(int[] freq) {
+		int key = 0;
+		for(int i = 0; i<FACES; i++) {
+			key |= freq[i] << (i*BITS_PER_FACE);
+		}
+		return key;
+	}
+
+	/*******************************************************************
+	 * Returns the score of the roll described by a packed key
+	 *
+	 * @param key packed frequency vector
+	 * @return roll score
+	 ******************************************************************/
+
+	public int score(int key) {
+		return entries[key] >>> 8;
+	}
+
+	/*******************************************************************
+	 * Returns how many dice scored in the roll described by a packed
+	 * key, so the roll reduces the available dice count by this much
+	 *
+	 * @param key packed frequency vector
+	 * @return dice used by the roll
+	 ******************************************************************/
+
+	public int used(int key) {
+		return entries[key] & 0xFF;
+	}
+
+	/*******************************************************************
+	 * Returns the packed entry for a key: score in the bits above 8,
+	 * dice used in the low 8 bits
+	 *
+	 * @param key packed frequency vector
+	 * @return packed entry
+	 ******************************************************************/
+
+	public int entry(int key) {
+		return entries[key];
+	}
+
+	/*******************************************************************
+	 * Returns the faces that scored in the roll described by a packed
+	 * key. Every scoring rule uses all dice showing a face, so the
+	 * scoring dice are exactly the dice showing these faces.
+	 *
+	 * @param key packed frequency vector
+	 * @return face mask, bit f-1 set when face f scored
+	 ******************************************************************/
+
+	public int scoringFaces(int key) {
+		return scoring[key];
+	}
+
+	/*******************************************************************
+	 * Returns which of the available dice show a scoring face
+	 *
+	 * @param faceMask scoring faces, as returned by scoringFaces()
+	 * @param faces face values packed 3 bits per die, first die lowest
+	 * @param availMask available dice, bit i for die i
+	 * @return mask of the dice that scored
+	 ******************************************************************/
+
+	public static int scoringDice(int faceMask, int faces, int availMask) {
+		int dice = 0;
+		for(int m = availMask; m != 0; m &= m - 1) {
+			int i = Integer.numberOfTrailingZeros(m);
+			int face = (faces >>> (i*BITS_PER_FACE)) & FACE_MASK;
+			dice |= ((faceMask >>> (face-1)) & 1) << i;
+		}
+		return dice;
+	}
+
+	/*******************************************************************
+	 * Returns the table key of a packed roll
+	 *
+	 * @param roll up to six faces 3 bits each, 0 for a die not rolled
+	 * @return packed key
+	 ******************************************************************/
+
+	public static int rollKey(int roll) {
+		return HALF_KEYS[roll & 0777] + HALF_KEYS[(roll >>> 9) & 0777];
+	}
+
+	/*******************************************************************
+	 * Returns the packed entry of a packed roll: score in the bits
+	 * above 8, dice used in the low 8 bits
+	 *
+	 * @param roll up to six faces 3 bits each, 0 for a die not rolled
+	 * @return packed entry
+	 ******************************************************************/
+
+	public int rollEntry(int roll) {
+		return byRoll[roll];
+	}
+
+	/*******************************************************************
+	 * Computes the table key of every roll in a range
+	 *
+	 * @param rolls packed rolls, 0 faces for dice not rolled
+	 * @param keys receives the key of each roll, may be rolls itself
+	 * @param from first index
+	 * @param to index after the last
+	 ******************************************************************/
+
+	public static void keys(int[] rolls, int[] keys, int from, int to) {
+		final int[] half = HALF_KEYS;
+		for(int i = from; i<to; i++) {
+			int r = rolls[i];
+			keys[i] = half[r & 0777] + half[(r >>> 9) & 0777];
+		}
+	}
+
+	/*******************************************************************
+	 * Scores every roll in a range, writing each roll's score and the
+	 * number of dice that scored. Each roll is a single load from the
+	 * roll-indexed table, with no branches in the loop.
+	 *
+	 * @param rolls packed rolls, 0 faces for dice not rolled
+	 * @param scores receives the score of each roll
+	 * @param used receives the number of dice that scored in each roll
+	 * @param from first index
+	 * @param to index after the last
+	 ******************************************************************/
+
+	public void scoreRolls(int[] rolls, int[] scores, byte[] used,
+			int from, int to) {
+		final int[] table = byRoll;
+		final int mask = (1 << ROLL_BITS) - 1;
+		for(int i = from; i<to; i++) {
+			int e = table[rolls[i] & mask];
+			scores[i] = e >>> 8;
+			used[i] = (byte) e;
+		}
+	}
+
+	/*******************************************************************
+	 * Getter method to return the rules the table was compiled from
+	 *
+	 * @return rules
+	 ******************************************************************/
+
+	public RuleSet getRules() {
+		return rules;
+	}
+
+	/*******************************************************************
+	 * Scores a frequency vector by applying each scoring rule in the
+	 * same order GreedGame always has
+	 *
+	 * @param freq frequency vector
+	 * @param mask single element array accumulating scoring faces
+	 * @return roll score
+	 ******************************************************************/
+
+	private int score(int[] freq, int[] mask) {
+		return straightScore(freq, mask) + pairScore(freq, mask) +
+				ofKindScore(freq, mask, 6) +
+				ofKindScore(freq, mask, 5) +
+				ofKindScore(freq, mask, 4) +
+				ofKindScore(freq, mask, 3) +
+				singleScore(freq, mask, 0, rules.getSingleOne()) +
+				singleScore(freq, mask, 4, rules.getSingleFive());
+	}
+
+	/*******************************************************************
+	 * Checks if dice are in a straight pattern. 1200 pts standard
+	 *
+	 * @return score value to add
+	 ******************************************************************/
+
+	private int straightScore(int[] freq, int[] mask) {
+		for(int i = 0; i<FACES; i++) {
+			if(freq[i] != 1)
+				return 0;
+		}
+		//a combination worth nothing uses no dice
+		if(rules.getStraight() > 0)
+			mask[0] = ALL_FACES;
+		return rules.getStraight();
+	}
+
+	/*******************************************************************
+	 * Checks if dice have three pairs of numbers. 800 pts standard
+	 *
+	 * @return score value to add
+	 ******************************************************************/
+
+	private int pairScore(int[] freq, int[] mask) {
+		int pairs = 0;
+		for(int i = 0; i<FACES; i++) {
+			if(freq[i] == 2)
+				pairs++;
+		}
+		if(pairs != 3)
+			return 0;
+		if(rules.getThreePairs() > 0)
+			mask[0] = ALL_FACES;
+		return rules.getThreePairs();
+	}
+
+	/*******************************************************************
+	 * Checks for exactly count dice of one face. Scores the face's
+	 * triple value (1000 for ones, face times 100 otherwise in the
+	 * standard rules) times the rule set's multiplier for count
+	 *
+	 * @param count number of matching dice required
+	 * @return score value to add
+	 ******************************************************************/
+
+	private int ofKindScore(int[] freq, int[] mask, int count) {
+		int multiplier = rules.getMultiplier(count);
+		int score = 0;
+		for(int i = 0; i<FACES; i++) {
+			int points = rules.getTriple(i+1) * multiplier;
+			if(freq[i] == count && points > 0) {
+				score += points;
+				mask[0] |= 1 << i;
+			}
+		}
+		return score;
+	}
+
+	/*******************************************************************
+	 * Checks if dice contain 1 or 2 dice of a single scoring face. The
+	 * pair and straight checks are re-run here exactly as the original
+	 * oneScore()/fiveScore() did.
+	 *
+	 * @param face index of the face (0 for ones, 4 for fives)
+	 * @param points points per die
+	 * @return score value to add
+	 ******************************************************************/
+
+	private int singleScore(int[] freq, int[] mask, int face,
+			int points) {
+		if(freq[face] < 3 && freq[face] > 0 && points > 0 &&
+				pairScore(freq, mask) == 0 &&
+				straightScore(freq, mask) == 0) {
+			mask[0] |= 1 << face;
+			return freq[face] * points;
+		}
+		return 0;
+	}
+}
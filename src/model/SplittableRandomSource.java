@@ -0,0 +1,61 @@
+package model;
+
+import java.util.SplittableRandom;
+
+/***********************************************************************
+ * @author Matt Conflitti
+ * @version 1.006092015
+ * 
+ * SplittableRandomSource rolls dice from a java.util.SplittableRandom.
+ * It is seedable and can be split into independent streams for worker
+ * threads.
+ **********************************************************************/
+
+public class SplittableRandomSource implements RandomSource {
+
+	/** underlying generator */
+	private final SplittableRandom rng;
+
+	/*******************************************************************
+	 * 
+	 * Constructor that seeds the generator
+	 * 
+	 * @param seed seed of the stream
+	 ******************************************************************/
+
+	public SplittableRandomSource(long seed) {
+		this(new SplittableRandom(seed));
+	}
+
+	/*******************************************************************
+	 * 
+	 * Constructor that wraps an existing generator
+	 * 
+	 * @param rng generator to draw from
+	 ******************************************************************/
+
+	public SplittableRandomSource(SplittableRandom rng) {
+		this.rng = rng;
+	}
+
+	/*******************************************************************
+	 * Returns the next 64 random bits
+	 * 
+	 * @return random long
+	 ******************************************************************/
+
+	@Override
+	public long nextLong() {
+		return rng.nextLong();
+	}
+
+	/*******************************************************************
+	 * Splits off a new independent stream
+	 * 
+	 * @return new source
+	 ******************************************************************/
+
+	public SplittableRandomSource split() {
+		return new SplittableRandomSource(rng.split());
+	}
+}
@@ -0,0 +1,39 @@
+package model;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/***********************************************************************
+ * @author Matt Conflitti
+ * @version 1.006092015
+ * 
+ * ThreadLocalRandomSource rolls dice from the calling thread's
+ * ThreadLocalRandom. It is shared freely between threads but cannot be
+ * seeded, so games rolled with it cannot be replayed.
+ **********************************************************************/
+
+public final class ThreadLocalRandomSource implements RandomSource {
+
+	/** the single instance */
+	public static final ThreadLocalRandomSource INSTANCE =
+			new ThreadLocalRandomSource();
+
+	/*******************************************************************
+	 * 
+	 * Private constructor, use INSTANCE
+	 * 
+	 ******************************************************************/
+
+	private ThreadLocalRandomSource() {
+	}
+
+	/*******************************************************************
+	 * Returns the next 64 random bits of the calling thread
+	 * 
+	 * @return random long
+	 ******************************************************************/
+
+	@Override
+	public long nextLong() {
+		return ThreadLocalRandom.current().nextLong();
+	}
+}
@@ -0,0 +1,76 @@
+package model;
+
+/***********************************************************************
+ * @author Matt Conflitti
+ * @version 1.006092015
+ * 
+ * Xoshiro256Random is the xoshiro256** generator by Blackman and Vigna.
+ * It is the fastest of the bundled sources. The 256-bit state is
+ * seeded from a single long with SplitMix64. Instances are not thread
+ * safe; give each thread its own.
+ **********************************************************************/
+
+public class Xoshiro256Random implements RandomSource {
+
+	/** generator state */
+	private long s0, s1, s2, s3;
+
+	/*******************************************************************
+	 * 
+	 * Constructor that seeds the generator
+	 * 
+	 * @param seed seed of the stream
+	 ******************************************************************/
+
+	public Xoshiro256Random(long seed) {
+		setSeed(seed);
+	}
+
+	/*******************************************************************
+	 * Restarts the generator at the stream of a seed, exactly as if it
+	 * had just been constructed with it
+	 * 
+	 * @param seed seed of the stream
+	 ******************************************************************/
+
+	public void setSeed(long seed) {
+		s0 = splitMix(seed += 0x9E3779B97F4A7C15L);
+		s1 = splitMix(seed += 0x9E3779B97F4A7C15L);
+		s2 = splitMix(seed += 0x9E3779B97F4A7C15L);
+		s3 = splitMix(seed + 0x9E3779B97F4A7C15L);
+	}
+
+	/*******************************************************************
+	 * Returns the next 64 random bits
+	 * 
+	 * @return random long
+	 ******************************************************************/
+
+	@Override
+	public long nextLong() {
+		long result = Long.rotateLeft(s1 * 5, 7) * 9;
+		long t = s1 << 17;
+
+		s2 ^= s0;
+		s3 ^= s1;
+		s1 ^= s2;
+		s0 ^= s3;
+		s2 ^= t;
+		s3 = Long.rotateLeft(s3, 45);
+
+		return result;
+	}
+
+	/*******************************************************************
+	 * SplitMix64 finalizer used to spread the seed over the state
+	 * 
+	 * @param z value to mix
+	 * @return mixed value
+	 ******************************************************************/
+
+	private static long splitMix(long z) {
+		z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+		z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+		return z ^ (z >>> 31);
+	}
+}
@@ -0,0 +1,271 @@
+package server;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.nio.file.Path;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.management.JMException;
+
+import model.GameMetrics;
+import model.RuleSet;
+
+/***********************************************************************
+ * @author Matt Conflitti
+ * @version 1.006092015
+ *
+ * GreedServer hosts Game of Greed tables over TCP. Every connection is
+ * one table, played by a TableSession on its own thread. On a runtime
+ * with virtual threads each session gets a virtual thread, so thousands
+ * of mostly idle tables cost little more than their sockets; older
+ * runtimes fall back to a cached pool of platform threads.
+ *
+ * Usage: GreedServer [port] [--rules file] [--hints dir]
+ **********************************************************************/
+
+public class GreedServer implements Closeable {
+
+	/** port used when none is given */
+	public static final int DEFAULT_PORT = 7070;
+
+	/** seconds between metrics dumps */
+	private static final int METRICS_PERIOD = 60;
+
+	/** pending connections the listen socket queues */
+	private static final int BACKLOG = 1024;
+
+	/** listen socket */
+	private final ServerSocket listener;
+
+	/** runs one session per table */
+	private final ExecutorService sessions;
+
+	/** tables currently being played */
+	private final AtomicInteger active = new AtomicInteger();
+
+	/** tables opened since the server started */
+	private final AtomicLong opened = new AtomicLong();
+
+	/** scoring rules of every table, null for the standard rules */
+	private volatile RuleSet rules;
+
+	/** directory holding solved policy files, null for no hints */
+	private volatile Path hintDir;
+
+	/*******************************************************************
+	 *
+	 * Constructor that binds the server to a port on all interfaces
+	 *
+	 * @param port port to listen on, 0 for any free port
+	 * @throws IOException if the port cannot be bound
+	 ******************************************************************/
+
+	public GreedServer(int port) throws IOException {
+		this(new InetSocketAddress(port));
+	}
+
+	/*******************************************************************
+	 *
+	 * Constructor that binds the server to an address
+	 *
+	 * @param address address to listen on
+	 * @throws IOException if the address cannot be bound
+	 ******************************************************************/
+
+	public GreedServer(InetSocketAddress address) throws IOException {
+		listener = new ServerSocket();
+		listener.setReuseAddress(true);
+		listener.bind(address, BACKLOG);
+		sessions = newSessionExecutor();
+	}
+
+	/*******************************************************************
+	 * Creates an executor that runs each task on a new virtual thread
+	 * when the runtime has them, otherwise on a cached thread pool
+	 *
+	 * @return executor for one task per session
+	 ******************************************************************/
+
+	public static ExecutorService newSessionExecutor() {
+		try {
+			return (ExecutorService) Executors.class
+					.getMethod("newVirtualThreadPerTaskExecutor")
+					.invoke(null);
+		} catch(ReflectiveOperationException e) {
+			//no virtual threads on this runtime
+			return Executors.newCachedThreadPool(r -> {
+				Thread t = new Thread(r, "greed-session");
+				t.setDaemon(true);
+				return t;
+			});
+		}
+	}
+
+	/*******************************************************************
+	 * Accepts connections until the server is closed, starting a table
+	 * session for each
+	 *
+	 * @throws IOException if accepting fails for any reason other than
+	 * the server being closed
+	 ******************************************************************/
+
+	public void serve() throws IOException {
+		while(!listener.isClosed()) {
+			Socket socket;
+			try {
+				socket = listener.accept();
+			} catch(SocketException e) {
+				//closed while waiting
+				if(listener.isClosed())
+					break;
+				throw e;
+			}
+
+			socket.setTcpNoDelay(true);
+			opened.incrementAndGet();
+			active.incrementAndGet();
+			sessions.execute(() -> {
+				try {
+					new TableSession(socket, rules, hintDir).run();
+				} finally {
+					active.decrementAndGet();
+				}
+			});
+		}
+	}
+
+	/*******************************************************************
+	 * Starts accepting connections on a background thread
+	 *
+	 * @return accepting thread
+	 ******************************************************************/
+
+	public Thread start() {
+		Thread t = new Thread(() -> {
+			try {
+				serve();
+			} catch(IOException e) {
+				System.err.println("Server stopped: " + e.getMessage());
+			}
+		}, "greed-accept");
+		t.setDaemon(true);
+		t.start();
+		return t;
+	}
+
+	/*******************************************************************
+	 * Stops accepting connections and waits briefly for open tables to
+	 * finish
+	 *
+	 * @throws IOException if the listen socket cannot be closed
+	 ******************************************************************/
+
+	public void close() throws IOException {
+		listener.close();
+		sessions.shutdown();
+		try {
+			sessions.awaitTermination(1, TimeUnit.SECONDS);
+		} catch(InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	/*******************************************************************
+	 * Setter method to set the scoring rules of tables opened from now
+	 * on
+	 *
+	 * @param rules rule set, or null for the standard rules
+	 ******************************************************************/
+
+	public void setRules(RuleSet rules) {
+		this.rules = rules;
+	}
+
+	/*******************************************************************
+	 * Setter method to offer hints from solved policies kept in a
+	 * directory at tables opened from now on
+	 *
+	 * @param hintDir directory of policy files, null for no hints
+	 ******************************************************************/
+
+	public void setHintDir(Path hintDir) {
+		this.hintDir = hintDir;
+	}
+
+	/*******************************************************************
+	 * Getter method to return the port the server listens on
+	 *
+	 * @return port
+	 ******************************************************************/
+
+	public int getPort() {
+		return listener.getLocalPort();
+	}
+
+	/*******************************************************************
+	 * Getter method to return the number of tables being played
+	 *
+	 * @return active tables
+	 ******************************************************************/
+
+	public int getActiveTables() {
+		return active.get();
+	}
+
+	/*******************************************************************
+	 * Getter method to return the number of tables opened since the
+	 * server started
+	 *
+	 * @return tables opened
+	 ******************************************************************/
+
+	public long getTablesOpened() {
+		return opened.get();
+	}
+
+	/*******************************************************************
+	 * Main method runs a server until the process is stopped.
+	 * Usage: GreedServer [port] [--rules file] [--hints dir]
+	 ******************************************************************/
+
+	public static void main(String[] args) throws IOException {
+		int port = DEFAULT_PORT;
+		RuleSet rules = null;
+		Path hintDir = null;
+
+		for(int i = 0; i<args.length; i++) {
+			if(args[i].equals("--rules") && i+1 < args.length)
+				rules = RuleSet.load(Path.of(args[++i]));
+			else if(args[i].equals("--hints") && i+1 < args.length)
+				hintDir = Path.of(args[++i]);
+			else
+				port = Integer.parseInt(args[i]);
+		}
+
+		//with -Dgreed.metrics=true, publish metrics over JMX and log them
+		if(GameMetrics.ENABLED) {
+			try {
+				GameMetrics.register();
+			} catch(JMException e) {
+				System.err.println("JMX registration failed: " + e);
+			}
+			GameMetrics.startDump(METRICS_PERIOD, System.out);
+		}
+
+		try(GreedServer server = new GreedServer(port)) {
+			server.setRules(rules);
+			server.setHintDir(hintDir);
+			System.out.println("Greed server listening on port " +
+					server.getPort());
+			server.serve();
+		}
+	}
+}
@@ -0,0 +1,255 @@
+package server;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+/***********************************************************************
+ * @author Matt Conflitti
+ * @version 1.006092015
+ *
+ * LoadClient opens many tables on a GreedServer at once and plays them
+ * with a simple threshold strategy, timing every move from sending an
+ * answer to receiving the next prompt. When no port is given it starts
+ * a server in the same process on a free localhost port.
+ *
+ * Usage: LoadClient [--host h] [--port p] [--tables n] [--games g]
+ *                   [--threshold t]
+ **********************************************************************/
+
+public class LoadClient {
+
+	/** host to connect to */
+	private final String host;
+
+	/** port to connect to */
+	private final int port;
+
+	/** turn score at which the client banks */
+	private final int threshold;
+
+	/*******************************************************************
+	 *
+	 * Constructor that sets up a client for a server
+	 *
+	 * @param host host to connect to
+	 * @param port port to connect to
+	 * @param threshold turn score at which tables bank
+	 ******************************************************************/
+
+	public LoadClient(String host, int port, int threshold) {
+		this.host = host;
+		this.port = port;
+		this.threshold = threshold;
+	}
+
+	/*******************************************************************
+	 * Plays games on many tables at once and returns every move latency
+	 *
+	 * @param tables tables to open at once
+	 * @param games games to play at each table
+	 * @return move latencies in nanoseconds, sorted
+	 * @throws Exception if a table fails
+	 ******************************************************************/
+
+	public long[] run(int tables, int games) throws Exception {
+		ExecutorService pool = GreedServer.newSessionExecutor();
+		try {
+			List<Callable<long[]>> work = new ArrayList<>(tables);
+			for(int i = 0; i<tables; i++) {
+				work.add(() -> playTable(games));
+			}
+			List<Future<long[]>> results = pool.invokeAll(work);
+
+			long[][] all = new long[tables][];
+			int total = 0;
+			for(int i = 0; i<tables; i++) {
+				all[i] = results.get(i).get();
+				total += all[i].length;
+			}
+
+			long[] latencies = new long[total];
+			for(int i = 0, n = 0; i<tables; i++) {
+				System.arraycopy(all[i], 0, latencies, n, all[i].length);
+				n += all[i].length;
+			}
+			Arrays.sort(latencies);
+			return latencies;
+		} finally {
+			pool.shutdown();
+		}
+	}
+
+	/*******************************************************************
+	 * Connects one table and plays it to the end
+	 *
+	 * @param games games to play at the table
+	 * @return move latencies in nanoseconds
+	 * @throws IOException if the connection fails or the server hangs
+	 * up early
+	 ******************************************************************/
+
+	private long[] playTable(int games) throws IOException {
+		long[] latencies = new long[256];
+		int moves = 0;
+		int played = 0;
+
+		try(Socket socket = new Socket()) {
+			socket.setTcpNoDelay(true);
+			socket.connect(new InetSocketAddress(host, port));
+			BufferedReader in = new BufferedReader(new InputStreamReader(
+					socket.getInputStream(), StandardCharsets.UTF_8));
+			OutputStream out = socket.getOutputStream();
+
+			int turnScore = 0;
+			long sent = 0;
+			String msg;
+			while((msg = in.readLine()) != null) {
+				if(!msg.startsWith(TableSession.PROMPT)) {
+					if(msg.contains("Turn Score: "))
+						turnScore = parseTurnScore(msg);
+					else if(msg.startsWith("Number of games played"))
+						played++;
+					continue;
+				}
+
+				long now = System.nanoTime();
+				if(sent != 0) {
+					if(moves == latencies.length)
+						latencies = Arrays.copyOf(latencies, moves * 2);
+					latencies[moves++] = now - sent;
+				}
+
+				String answer = answer(msg, turnScore, played < games);
+				out.write((answer + "\n").getBytes(StandardCharsets.UTF_8));
+				sent = System.nanoTime();
+			}
+		}
+
+		if(played < games)
+			throw new IOException("Table closed after " + played +
+					" of " + games + " games");
+		return Arrays.copyOf(latencies, moves);
+	}
+
+	/*******************************************************************
+	 * Chooses the answer to a prompt
+	 *
+	 * @param prompt prompt line received
+	 * @param turnScore turn score after the last roll
+	 * @param more true if more games should be played
+	 * @return answer line
+	 ******************************************************************/
+
+	private String answer(String prompt, int turnScore, boolean more) {
+		if(prompt.contains("How many players"))
+			return "2";
+		if(prompt.contains("Points to win"))
+			return "1000";
+		if(prompt.contains("Player to start"))
+			return "1";
+		if(prompt.contains("roll again"))
+			return turnScore < threshold ? "y" : "n";
+		if(prompt.contains("play again"))
+			return more ? "y" : "n";
+		return "";
+	}
+
+	/*******************************************************************
+	 * Reads the turn score out of a roll line
+	 *
+	 * @param msg roll line
+	 * @return turn score
+	 ******************************************************************/
+
+	private static int parseTurnScore(String msg) {
+		int i = msg.indexOf("Turn Score: ") + "Turn Score: ".length();
+		int score = 0;
+		while(i < msg.length() && Character.isDigit(msg.charAt(i))) {
+			score = score * 10 + msg.charAt(i++) - '0';
+		}
+		return score;
+	}
+
+	/*******************************************************************
+	 * Returns a quantile of sorted latencies in microseconds
+	 *
+	 * @param sorted sorted latencies in nanoseconds
+	 * @param q quantile between 0 and 1
+	 * @return latency in microseconds
+	 ******************************************************************/
+
+	public static double quantileMicros(long[] sorted, double q) {
+		if(sorted.length == 0)
+			return 0;
+		int i = (int) Math.min(sorted.length - 1,
+				Math.ceil(q * sorted.length) - 1);
+		return sorted[Math.max(i, 0)] / 1e3;
+	}
+
+	/*******************************************************************
+	 * Main method runs the load and reports move latency.
+	 * Usage: LoadClient [--host h] [--port p] [--tables n] [--games g]
+	 *                   [--threshold t]
+	 ******************************************************************/
+
+	public static void main(String[] args) throws Exception {
+		String host = "localhost";
+		int port = -1;
+		int tables = 1000;
+		int games = 5;
+		int threshold = 300;
+
+		for(int i = 0; i+1<args.length; i += 2) {
+			if(args[i].equals("--host"))
+				host = args[i+1];
+			else if(args[i].equals("--port"))
+				port = Integer.parseInt(args[i+1]);
+			else if(args[i].equals("--tables"))
+				tables = Integer.parseInt(args[i+1]);
+			else if(args[i].equals("--games"))
+				games = Integer.parseInt(args[i+1]);
+			else if(args[i].equals("--threshold"))
+				threshold = Integer.parseInt(args[i+1]);
+		}
+
+		//no server given, run one here
+		GreedServer server = null;
+		if(port < 0) {
+			server = new GreedServer(
+					new InetSocketAddress("localhost", 0));
+			server.start();
+			port = server.getPort();
+		}
+
+		try {
+			long start = System.nanoTime();
+			long[] latencies = new LoadClient(host, port, threshold)
+					.run(tables, games);
+			double secs = (System.nanoTime() - start) / 1e9;
+
+			System.out.println("Tables: " + tables + "\tGames: " +
+					(long) tables * games + "\tMoves: " + latencies.length);
+			System.out.println(String.format("Moves/sec: %.0f",
+					latencies.length / secs));
+			System.out.println(String.format(
+					"Move latency us: p50 %.1f\tp99 %.1f\tmax %.1f",
+					quantileMicros(latencies, 0.50),
+					quantileMicros(latencies, 0.99),
+					quantileMicros(latencies, 1.0)));
+		} finally {
+			if(server != null)
+				server.close();
+		}
+	}
+}
@@ -0,0 +1,89 @@
+package server;
+
+import java.io.IOException;
+import java.net.Socket;
+import java.nio.file.Path;
+import java.util.NoSuchElementException;
+
+import model.RuleSet;
+import view.GreedCLI;
+
+/***********************************************************************
+ * @author Matt Conflitti
+ * @version 1.006092015
+ *
+ * TableSession plays one Game of Greed table over a socket by running a
+ * GreedCLI on the connection's streams, so a table asks the same
+ * questions as the console game, including computer players, house
+ * rules and hints. The protocol is line based: every line the server
+ * sends is either a message or, when it starts with PROMPT, a question
+ * the client answers with exactly one line. Messages are buffered and
+ * only flushed when a prompt is sent, so a move costs one write each
+ * way.
+ *
+ * A table ends when the players decline another game, the client
+ * disconnects or the client stays silent for longer than the timeout.
+ **********************************************************************/
+
+public class TableSession implements Runnable {
+
+	/** prefix of lines the client must answer */
+	public static final String PROMPT = "> ";
+
+	/** milliseconds a client may take to answer a prompt */
+	public static final int TIMEOUT = 10 * 60 * 1000;
+
+	/** connection to the table's client */
+	private final Socket socket;
+
+	/** scoring rules, null for the standard rules */
+	private final RuleSet rules;
+
+	/** directory holding solved policy files, null for no hints */
+	private final Path hintDir;
+
+	/*******************************************************************
+	 *
+	 * Constructor that creates a session for a connected client
+	 *
+	 * @param socket client connection
+	 ******************************************************************/
+
+	public TableSession(Socket socket) {
+		this(socket, null, null);
+	}
+
+	/*******************************************************************
+	 *
+	 * Constructor that creates a session for a connected client with
+	 * house rules and hints
+	 *
+	 * @param socket client connection
+	 * @param rules rule set, or null for the standard rules
+	 * @param hintDir directory of policy files, or null for no hints
+	 ******************************************************************/
+
+	public TableSession(Socket socket, RuleSet rules, Path hintDir) {
+		this.socket = socket;
+		this.rules = rules;
+		this.hintDir = hintDir;
+	}
+
+	/*******************************************************************
+	 * Plays the table until it ends, then closes the connection
+	 ******************************************************************/
+
+	public void run() {
+		try(Socket s = socket) {
+			s.setSoTimeout(TIMEOUT);
+			GreedCLI cli = new GreedCLI(s.getInputStream(),
+					s.getOutputStream(), false);
+			cli.setPromptPrefix(PROMPT);
+			cli.setRules(rules);
+			cli.setHintDir(hintDir);
+			cli.play();
+		} catch(IOException | NoSuchElementException e) {
+			//client went away or timed out, nothing left to tell it
+		}
+	}
+}
@@ -0,0 +1,143 @@
+package sim;
+
+/***********************************************************************
+ * @author Matt Conflitti
+ * @version 1.006092015
+ *
+ * Histogram counts values into a fixed number of equal width buckets.
+ * Values past the last bucket are counted in the last bucket so memory
+ * stays constant however many values are recorded.
+ **********************************************************************/
+
+public class Histogram {
+
+	/** count per bucket */
+	private final long[] counts;
+
+	/** width of each bucket */
+	private final int width;
+
+	/** number of values recorded */
+	private long total;
+
+	/** sum of values recorded */
+	private long sum;
+
+	/*******************************************************************
+	 *
+	 * Constructor that sets the bucket layout
+	 *
+	 * @param buckets number of buckets
+	 * @param width width of each bucket
+	 ******************************************************************/
+
+	public Histogram(int buckets, int width) {
+		if(buckets < 1 || width < 1)
+			throw new IllegalArgumentException();
+
+		this.counts = new long[buckets];
+		this.width = width;
+	}
+
+	/*******************************************************************
+	 * Records a non-negative value
+	 *
+	 * @param value value to record
+	 ******************************************************************/
+
+	public void record(int value) {
+		int i = value / width;
+		if(i >= counts.length)
+			i = counts.length - 1;
+		counts[i]++;
+		total++;
+		sum += value;
+	}
+
+	/*******************************************************************
+	 * Adds the counts of a histogram with the same layout to this one
+	 *
+	 * @param other histogram to merge in
+	 ******************************************************************/
+
+	public void merge(Histogram other) {
+		if(other.counts.length != counts.length || other.width != width)
+			throw new IllegalArgumentException();
+
+		for(int i = 0; i<counts.length; i++) {
+			counts[i] += other.counts[i];
+		}
+		total += other.total;
+		sum += other.sum;
+	}
+
+	/*******************************************************************
+	 * Getter method to return the count of a bucket
+	 *
+	 * @param bucket bucket index
+	 * @return count
+	 ******************************************************************/
+
+	public long getCount(int bucket) {
+		return counts[bucket];
+	}
+
+	/*******************************************************************
+	 * Getter method to return number of buckets
+	 *
+	 * @return number of buckets
+	 ******************************************************************/
+
+	public int getBuckets() {
+		return counts.length;
+	}
+
+	/*******************************************************************
+	 * Getter method to return bucket width
+	 *
+	 * @return width
+	 ******************************************************************/
+
+	public int getWidth() {
+		return width;
+	}
+
+	/*******************************************************************
+	 * Getter method to return number of values recorded
+	 *
+	 * @return total
+	 ******************************************************************/
+
+	public long getTotal() {
+		return total;
+	}
+
+	/*******************************************************************
+	 * Returns the mean of the values recorded
+	 *
+	 * @return mean, or 0 if empty
+	 ******************************************************************/
+
+	public double getMean() {
+		return total == 0 ? 0 : (double) sum / total;
+	}
+
+	/*******************************************************************
+	 * Returns the lower bound of the bucket containing the given
+	 * quantile
+	 *
+	 * @param q quantile between 0 and 1
+	 * @return lower bound of the bucket
+	 ******************************************************************/
+
+	public int getQuantile(double q) {
+		long target = (long) Math.ceil(q * total);
+		long seen = 0;
+		for(int i = 0; i<counts.length; i++) {
+			seen += counts[i];
+			if(seen >= target && seen > 0)
+				return i * width;
+		}
+		return 0;
+	}
+}
@@ -0,0 +1,251 @@
+package sim;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Consumer;
+import java.util.concurrent.RecursiveTask;
+
+import model.GameMetrics;
+import model.RuleSet;
+import model.Xoshiro256Random;
+
+/***********************************************************************
+ * @author Matt Conflitti
+ * @version 1.006092015
+ *
+ * ParallelSimulator splits a batch of simulated games across a
+ * ForkJoinPool. Games are grouped into fixed size chunks and each chunk
+ * rolls from its own random stream derived from the master seed and
+ * the chunk number, so the merged result depends only on the seed and
+ * the number of games, never on the number of threads.
+ **********************************************************************/
+
+public class ParallelSimulator {
+
+	/** games played from one random stream */
+	public static final int CHUNK_SIZE = 1 << 14;
+
+	/** pool the games run in */
+	private final ForkJoinPool pool;
+
+	/** strategy for each seat */
+	private final Strategy[] strategies;
+
+	/** winning score of each game */
+	private final int winScore;
+
+	/** scoring rules, null for the standard rules */
+	private RuleSet rules;
+
+	/*******************************************************************
+	 *
+	 * Constructor that runs games in the common ForkJoinPool
+	 *
+	 * @param winScore winning score of each game
+	 * @param strategies strategy for each seat, at least two
+	 ******************************************************************/
+
+	public ParallelSimulator(int winScore, Strategy... strategies) {
+		this(ForkJoinPool.commonPool(), winScore, strategies);
+	}
+
+	/*******************************************************************
+	 *
+	 * Constructor that runs games in the given pool
+	 *
+	 * @param pool pool to run games in
+	 * @param winScore winning score of each game
+	 * @param strategies strategy for each seat, at least two
+	 ******************************************************************/
+
+	public ParallelSimulator(ForkJoinPool pool, int winScore,
+			Strategy... strategies) {
+		if(strategies.length < 2)
+			throw new IllegalArgumentException();
+
+		this.pool = pool;
+		this.winScore = winScore;
+		this.strategies = strategies.clone();
+	}
+
+	/*******************************************************************
+	 * Plays a batch of games in parallel
+	 *
+	 * @param games number of games to play
+	 * @param startPlayer seat that takes the first turn of each game,
+	 * or Simulator.ROTATE
+	 * @param seed master seed all random streams derive from
+	 * @return merged result of every game
+	 ******************************************************************/
+
+	public SimulationResult run(long games, int startPlayer, long seed) {
+		long chunks = (games + CHUNK_SIZE - 1) / CHUNK_SIZE;
+		return pool.invoke(new Batch(games, startPlayer, seed, 0, chunks));
+	}
+
+	/*******************************************************************
+	 * Plays a batch of games in parallel, handing a snapshot of the
+	 * running totals to a consumer after roughly every snapshotEvery
+	 * games. The final result is the same as run() without snapshots.
+	 *
+	 * @param games number of games to play
+	 * @param startPlayer seat that takes the first turn of each game,
+	 * or Simulator.ROTATE
+	 * @param seed master seed all random streams derive from
+	 * @param snapshotEvery games between snapshots, rounded up to whole
+	 * chunks
+	 * @param snapshots receives each snapshot on the calling thread
+	 * @return merged result of every game
+	 ******************************************************************/
+
+	public SimulationResult run(long games, int startPlayer, long seed,
+			long snapshotEvery, Consumer<SimulationResult> snapshots) {
+		long chunks = (games + CHUNK_SIZE - 1) / CHUNK_SIZE;
+		long step = Math.max(1, (snapshotEvery + CHUNK_SIZE - 1) / CHUNK_SIZE);
+		SimulationResult total = new SimulationResult(strategies.length);
+
+		for(long from = 0; from < chunks; from += step) {
+			long to = Math.min(from + step, chunks);
+			total.merge(pool.invoke(
+					new Batch(games, startPlayer, seed, from, to)));
+			snapshots.accept(total.snapshot());
+		}
+		return total;
+	}
+
+	/*******************************************************************
+	 * Setter method to set the scoring rules of every game
+	 *
+	 * @param rules rule set, or null for the standard rules
+	 ******************************************************************/
+
+	public void setRules(RuleSet rules) {
+		this.rules = rules;
+	}
+
+	/*******************************************************************
+	 * Derives the seed of a chunk's random stream from the master seed
+	 * using the SplitMix64 finalizer
+	 *
+	 * @param seed master seed
+	 * @param chunk chunk number
+	 * @return seed for the chunk
+	 ******************************************************************/
+
+	static long chunkSeed(long seed, long chunk) {
+		long z = seed + (chunk + 1) * 0x9E3779B97F4A7C15L;
+		z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+		z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+		return z ^ (z >>> 31);
+	}
+
+	/*******************************************************************
+	 * Task that plays a range of chunks, splitting in half until a
+	 * single chunk is left
+	 ******************************************************************/
+
+	private class Batch extends RecursiveTask<SimulationResult> {
+
+		/** serialization version, tasks are never serialized */
+		private static final long serialVersionUID = 1L;
+
+		/** total games in the whole run */
+		private final long games;
+
+		/** seat that takes the first turn */
+		private final int startPlayer;
+
+		/** master seed */
+		private final long seed;
+
+		/** first chunk of this task */
+		private final long from;
+
+		/** chunk after the last one of this task */
+		private final long to;
+
+		Batch(long games, int startPlayer, long seed, long from, long to) {
+			this.games = games;
+			this.startPlayer = startPlayer;
+			this.seed = seed;
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		protected SimulationResult compute() {
+			if(to - from > 1) {
+				long mid = (from + to) >>> 1;
+				Batch left = new Batch(games, startPlayer, seed, from, mid);
+				Batch right = new Batch(games, startPlayer, seed, mid, to);
+				left.fork();
+				SimulationResult result = right.compute();
+				result.merge(left.join());
+				return result;
+			}
+
+			SimulationResult result =
+					new SimulationResult(strategies.length);
+			if(from == to)
+				return result;
+
+			Simulator sim = new Simulator(winScore, strategies);
+			sim.setRandom(new Xoshiro256Random(chunkSeed(seed, from)));
+			sim.setRules(rules);
+			long count = Math.min(CHUNK_SIZE, games - from * CHUNK_SIZE);
+			return sim.run(count, startPlayer, from * CHUNK_SIZE, result);
+		}
+	}
+
+	/*******************************************************************
+	 * Main method runs a parallel batch of games between threshold
+	 * strategies, optionally under house rules read from a properties
+	 * file.
+	 * Usage: ParallelSimulator [--rules file] games winScore seed
+	 *        threshold threshold...
+	 ******************************************************************/
+
+	public static void main(String[] args) throws IOException {
+		RuleSet rules = null;
+		if(args.length > 1 && args[0].equals("--rules")) {
+			rules = RuleSet.load(Path.of(args[1]));
+			args = Arrays.copyOfRange(args, 2, args.length);
+		}
+
+		if(args.length < 5) {
+			System.out.println("Usage: ParallelSimulator [--rules file] " +
+					"games winScore seed threshold threshold...");
+			return;
+		}
+
+		long games = Long.parseLong(args[0]);
+		int winScore = Integer.parseInt(args[1]);
+		long seed = Long.parseLong(args[2]);
+		Strategy[] strategies = new Strategy[args.length-3];
+		for(int i = 0; i<strategies.length; i++) {
+			strategies[i] =
+					new ThresholdStrategy(Integer.parseInt(args[i+3]));
+		}
+
+		ParallelSimulator sim = new ParallelSimulator(winScore, strategies);
+		sim.setRules(rules);
+		long start = System.nanoTime();
+		SimulationResult result = sim.run(games, Simulator.ROTATE, seed);
+		double secs = (System.nanoTime() - start) / 1e9;
+
+		System.out.println(result);
+		System.out.println(String.format("First player wins: %.4f",
+				result.getFirstPlayerWinRate()));
+		System.out.println("Mean rolls per turn: " +
+				String.format("%.3f", result.getTurnLengths().getMean()));
+		for(int d = 6; d>=1; d--) {
+			System.out.println(String.format("Farkle rate, %d dice: %.4f",
+					d, result.getFarkleRate(d)));
+		}
+		System.out.println(String.format("%.0f games/sec", games / secs));
+		if(GameMetrics.ENABLED)
+			System.out.println(GameMetrics.report());
+	}
+}
@@ -0,0 +1,472 @@
+package sim;
+
+import java.io.IOException;
+
+import model.RuleSet;
+
+/***********************************************************************
+ * @author Matt Conflitti
+ * @version 1.006092015
+ *
+ * SimulationResult accumulates the outcome of a batch of simulated
+ * games: wins per seat, games played, games abandoned at the turn
+ * limit, total turns taken, rolls per turn and final score spread per
+ * seat. It also streams per roll statistics: a histogram of roll
+ * scores, rolls and zero-point rolls (farkles) by dice available, and
+ * wins per seat for each starting seat.
+ *
+ * Every statistic lives in fixed size primitive arrays, so memory stays
+ * constant however many games are recorded. Each worker fills its own
+ * result and results are combined with merge(). Snapshots can be
+ * exported as CSV or JSON at any point.
+ **********************************************************************/
+
+public class SimulationResult {
+
+	/** longest turn tracked by the turn length histogram */
+	public static final int TURN_LENGTH_BUCKETS = 32;
+
+	/** width of a score bucket */
+	public static final int SCORE_BUCKET = 50;
+
+	/** number of final score buckets */
+	public static final int SCORE_BUCKETS = 401;
+
+	/** number of roll score buckets, enough for six ones */
+	public static final int ROLL_SCORE_BUCKETS = 161;
+
+	/** wins recorded for each seat */
+	private final long[] wins;
+
+	/** wins per seat for each starting seat, [start][seat] */
+	private final long[][] winsByStart;
+
+	/** games started from each seat */
+	private final long[] gamesByStart;
+
+	/** total games played, including unfinished ones */
+	private long games;
+
+	/** games stopped at the turn limit without a winner */
+	private long unfinished;
+
+	/** total turns taken over all games */
+	private long turns;
+
+	/** rolls made with each number of dice available */
+	private final long[] rollsByDice;
+
+	/** zero-point rolls made with each number of dice available */
+	private final long[] farklesByDice;
+
+	/** score of each roll */
+	private final Histogram rollScores;
+
+	/** number of rolls in each turn */
+	private final Histogram turnLengths;
+
+	/** final game score of each seat */
+	private final Histogram[] finalScores;
+
+	/*******************************************************************
+	 *
+	 * Constructor that creates an empty result for a number of seats
+	 *
+	 * @param numPlayers number of seats at the table
+	 ******************************************************************/
+
+	public SimulationResult(int numPlayers) {
+		this.wins = new long[numPlayers];
+		this.winsByStart = new long[numPlayers][numPlayers];
+		this.gamesByStart = new long[numPlayers];
+		this.rollsByDice = new long[RuleSet.NBR_OF_DICE+1];
+		this.farklesByDice = new long[RuleSet.NBR_OF_DICE+1];
+		this.rollScores = new Histogram(ROLL_SCORE_BUCKETS, SCORE_BUCKET);
+		this.turnLengths = new Histogram(TURN_LENGTH_BUCKETS, 1);
+		this.finalScores = new Histogram[numPlayers];
+		for(int i = 0; i<numPlayers; i++) {
+			this.finalScores[i] = new Histogram(SCORE_BUCKETS,
+					SCORE_BUCKET);
+		}
+	}
+
+	/*******************************************************************
+	 * Records a finished or abandoned game
+	 *
+	 * @param startPlayer seat that took the first turn
+	 * @param winner winning seat, or -1 if unfinished
+	 * @param gameTurns turns taken in the game
+	 ******************************************************************/
+
+	public void recordGame(int startPlayer, int winner, int gameTurns) {
+		games++;
+		turns += gameTurns;
+		gamesByStart[startPlayer]++;
+		if(winner < 0) {
+			unfinished++;
+		} else {
+			wins[winner]++;
+			winsByStart[startPlayer][winner]++;
+		}
+	}
+
+	/*******************************************************************
+	 * Records a single roll
+	 *
+	 * @param diceAvail dice available before the roll
+	 * @param rollScore score of the roll, 0 for a farkle
+	 ******************************************************************/
+
+	public void recordRoll(int diceAvail, int rollScore) {
+		rollsByDice[diceAvail]++;
+		if(rollScore == 0)
+			farklesByDice[diceAvail]++;
+		rollScores.record(rollScore);
+	}
+
+	/*******************************************************************
+	 * Records the number of rolls taken in a turn
+	 *
+	 * @param rolls rolls in the turn
+	 ******************************************************************/
+
+	public void recordTurn(int rolls) {
+		turnLengths.record(rolls);
+	}
+
+	/*******************************************************************
+	 * Records a seat's score at the end of a game
+	 *
+	 * @param seat seat index
+	 * @param score final game score
+	 ******************************************************************/
+
+	public void recordScore(int seat, int score) {
+		finalScores[seat].record(score);
+	}
+
+	/*******************************************************************
+	 * Adds the counts of another result for the same seats to this one
+	 *
+	 * @param other result to merge in
+	 ******************************************************************/
+
+	public void merge(SimulationResult other) {
+		if(other.wins.length != wins.length)
+			throw new IllegalArgumentException();
+
+		for(int i = 0; i<wins.length; i++) {
+			wins[i] += other.wins[i];
+			gamesByStart[i] += other.gamesByStart[i];
+			for(int j = 0; j<wins.length; j++) {
+				winsByStart[i][j] += other.winsByStart[i][j];
+			}
+			finalScores[i].merge(other.finalScores[i]);
+		}
+		for(int d = 0; d<=RuleSet.NBR_OF_DICE; d++) {
+			rollsByDice[d] += other.rollsByDice[d];
+			farklesByDice[d] += other.farklesByDice[d];
+		}
+		games += other.games;
+		unfinished += other.unfinished;
+		turns += other.turns;
+		rollScores.merge(other.rollScores);
+		turnLengths.merge(other.turnLengths);
+	}
+
+	/*******************************************************************
+	 * Returns a copy of this result that later recording does not
+	 * change
+	 *
+	 * @return snapshot of this result
+	 ******************************************************************/
+
+	public SimulationResult snapshot() {
+		SimulationResult copy = new SimulationResult(wins.length);
+		copy.merge(this);
+		return copy;
+	}
+
+	/*******************************************************************
+	 * Getter method to return number of seats
+	 *
+	 * @return number of seats
+	 ******************************************************************/
+
+	public int getNumPlayers() {
+		return wins.length;
+	}
+
+	/*******************************************************************
+	 * Getter method to return wins for a seat
+	 *
+	 * @param seat seat index
+	 * @return wins for the seat
+	 ******************************************************************/
+
+	public long getWins(int seat) {
+		return wins[seat];
+	}
+
+	/*******************************************************************
+	 * Returns the fraction of all games won by a seat
+	 *
+	 * @param seat seat index
+	 * @return win rate between 0 and 1
+	 ******************************************************************/
+
+	public double getWinRate(int seat) {
+		return games == 0 ? 0 : (double) wins[seat] / games;
+	}
+
+	/*******************************************************************
+	 * Returns the fraction of games started from a seat that were won
+	 * by the given seat
+	 *
+	 * @param startPlayer seat that took the first turn
+	 * @param seat seat whose wins are counted
+	 * @return win rate between 0 and 1
+	 ******************************************************************/
+
+	public double getWinRate(int startPlayer, int seat) {
+		long n = gamesByStart[startPlayer];
+		return n == 0 ? 0 : (double) winsByStart[startPlayer][seat] / n;
+	}
+
+	/*******************************************************************
+	 * Returns the fraction of games won by the seat that took the first
+	 * turn
+	 *
+	 * @return first player win rate between 0 and 1
+	 ******************************************************************/
+
+	public double getFirstPlayerWinRate() {
+		long won = 0;
+		for(int i = 0; i<wins.length; i++) {
+			won += winsByStart[i][i];
+		}
+		return games == 0 ? 0 : (double) won / games;
+	}
+
+	/*******************************************************************
+	 * Returns the fraction of rolls of a number of dice that scored
+	 * zero points
+	 *
+	 * @param diceAvail dice rolled
+	 * @return farkle rate between 0 and 1
+	 ******************************************************************/
+
+	public double getFarkleRate(int diceAvail) {
+		long n = rollsByDice[diceAvail];
+		return n == 0 ? 0 : (double) farklesByDice[diceAvail] / n;
+	}
+
+	/*******************************************************************
+	 * Getter method to return games played
+	 *
+	 * @return games
+	 ******************************************************************/
+
+	public long getGames() {
+		return games;
+	}
+
+	/*******************************************************************
+	 * Getter method to return games abandoned at the turn limit
+	 *
+	 * @return unfinished games
+	 ******************************************************************/
+
+	public long getUnfinished() {
+		return unfinished;
+	}
+
+	/*******************************************************************
+	 * Getter method to return total turns taken
+	 *
+	 * @return turns
+	 ******************************************************************/
+
+	public long getTurns() {
+		return turns;
+	}
+
+	/*******************************************************************
+	 * Getter method to return the roll score histogram
+	 *
+	 * @return roll score histogram
+	 ******************************************************************/
+
+	public Histogram getRollScores() {
+		return rollScores;
+	}
+
+	/*******************************************************************
+	 * Getter method to return the rolls per turn histogram
+	 *
+	 * @return turn length histogram
+	 ******************************************************************/
+
+	public Histogram getTurnLengths() {
+		return turnLengths;
+	}
+
+	/*******************************************************************
+	 * Getter method to return the final score histogram of a seat
+	 *
+	 * @param seat seat index
+	 * @return final score histogram
+	 ******************************************************************/
+
+	public Histogram getFinalScores(int seat) {
+		return finalScores[seat];
+	}
+
+	/*******************************************************************
+	 * Writes every statistic as CSV rows of statistic, key, value
+	 *
+	 * @param out destination
+	 * @throws IOException if writing fails
+	 ******************************************************************/
+
+	public void writeCsv(Appendable out) throws IOException {
+		out.append("statistic,key,value\n");
+		row(out, "games", "", games);
+		row(out, "unfinished", "", unfinished);
+		row(out, "turns", "", turns);
+		for(int i = 0; i<wins.length; i++) {
+			row(out, "wins", Integer.toString(i+1), wins[i]);
+		}
+		for(int s = 0; s<wins.length; s++) {
+			row(out, "gamesByStart", Integer.toString(s+1),
+					gamesByStart[s]);
+			for(int i = 0; i<wins.length; i++) {
+				row(out, "winsByStart", (s+1) + ":" + (i+1),
+						winsByStart[s][i]);
+			}
+		}
+		for(int d = 1; d<=RuleSet.NBR_OF_DICE; d++) {
+			row(out, "rollsByDice", Integer.toString(d), rollsByDice[d]);
+			row(out, "farklesByDice", Integer.toString(d),
+					farklesByDice[d]);
+		}
+		histogramRows(out, "rollScore", rollScores);
+		histogramRows(out, "turnLength", turnLengths);
+		for(int i = 0; i<wins.length; i++) {
+			histogramRows(out, "finalScore" + (i+1), finalScores[i]);
+		}
+	}
+
+	/*******************************************************************
+	 * Helper method writes one CSV row
+	 ******************************************************************/
+
+	private static void row(Appendable out, String stat, String key,
+			long value) throws IOException {
+		out.append(stat).append(',').append(key).append(',')
+			.append(Long.toString(value)).append('\n');
+	}
+
+	/*******************************************************************
+	 * Helper method writes the non-empty buckets of a histogram as CSV
+	 * rows keyed by bucket lower bound
+	 ******************************************************************/
+
+	private static void histogramRows(Appendable out, String stat,
+			Histogram h) throws IOException {
+		for(int b = 0; b<h.getBuckets(); b++) {
+			if(h.getCount(b) > 0)
+				row(out, stat, Integer.toString(b * h.getWidth()),
+						h.getCount(b));
+		}
+	}
+
+	/*******************************************************************
+	 * Writes every statistic as a JSON object
+	 *
+	 * @param out destination
+	 * @throws IOException if writing fails
+	 ******************************************************************/
+
+	public void writeJson(Appendable out) throws IOException {
+		out.append("{\"games\":").append(Long.toString(games))
+			.append(",\"unfinished\":").append(Long.toString(unfinished))
+			.append(",\"turns\":").append(Long.toString(turns))
+			.append(",\"wins\":");
+		array(out, wins, 0);
+		out.append(",\"gamesByStart\":");
+		array(out, gamesByStart, 0);
+		out.append(",\"winsByStart\":[");
+		for(int s = 0; s<wins.length; s++) {
+			if(s > 0)
+				out.append(',');
+			array(out, winsByStart[s], 0);
+		}
+		out.append("],\"rollsByDice\":");
+		array(out, rollsByDice, 1);
+		out.append(",\"farklesByDice\":");
+		array(out, farklesByDice, 1);
+		out.append(",\"rollScores\":");
+		histogram(out, rollScores);
+		out.append(",\"turnLengths\":");
+		histogram(out, turnLengths);
+		out.append(",\"finalScores\":[");
+		for(int i = 0; i<wins.length; i++) {
+			if(i > 0)
+				out.append(',');
+			histogram(out, finalScores[i]);
+		}
+		out.append("]}\n");
+	}
+
+	/*******************************************************************
+	 * Helper method writes part of an array as a JSON array
+	 ******************************************************************/
+
+	private static void array(Appendable out, long[] values, int from)
+			throws IOException {
+		out.append('[');
+		for(int i = from; i<values.length; i++) {
+			if(i > from)
+				out.append(',');
+			out.append(Long.toString(values[i]));
+		}
+		out.append(']');
+	}
+
+	/*******************************************************************
+	 * Helper method writes a histogram as a JSON object
+	 ******************************************************************/
+
+	private static void histogram(Appendable out, Histogram h)
+			throws IOException {
+		long[] counts = new long[h.getBuckets()];
+		for(int b = 0; b<counts.length; b++) {
+			counts[b] = h.getCount(b);
+		}
+		out.append("{\"width\":").append(Integer.toString(h.getWidth()))
+			.append(",\"mean\":").append(Double.toString(h.getMean()))
+			.append(",\"counts\":");
+		array(out, counts, 0);
+		out.append('}');
+	}
+
+	/*******************************************************************
+	 * Returns a string summary of win rates per seat
+	 *
+	 * @return string form of this object
+	 ******************************************************************/
+
+	@Override
+	public String toString() {
+		StringBuilder sb = new StringBuilder();
+		sb.append("Games: ").append(games);
+		if(unfinished > 0)
+			sb.append(" (").append(unfinished).append(" unfinished)");
+		for(int i = 0; i<wins.length; i++) {
+			sb.append("\tPlayer ").append(i+1).append(": ")
+				.append(String.format("%.4f", getWinRate(i)));
+		}
+		return sb.toString();
+	}
+}
@@ -0,0 +1,408 @@
+package sim;
+
+import model.GameListener;
+import model.GameLogWriter;
+import model.GamePool;
+import model.GreedGame;
+import model.PackedGreedGame;
+import model.RandomSource;
+import model.RuleSet;
+import model.ThreadLocalRandomSource;
+
+/***********************************************************************
+ * @author Matt Conflitti
+ * @version 1.006092015
+ *
+ * Simulator plays complete games of Greed without a user interface.
+ * Each seat is driven by a Strategy and the game follows the same
+ * rollDice()/turn()/passDice()/isWon() sequence as GreedCLI. Games
+ * are taken from and given back to the GamePool, so a long run reuses
+ * the same few game objects.
+ *
+ * When every seat plays a ThresholdStrategy and nothing listens to or
+ * logs the games, they are played on a PackedGreedGame instead. It
+ * draws the same dice and makes the same decisions, so results are
+ * identical, but no Die or Player objects are touched and game metrics
+ * are not recorded.
+ **********************************************************************/
+
+public class Simulator {
+
+	/** start player that rotates the first turn through every seat */
+	public static final int ROTATE = -1;
+
+	/** default cap on turns before a game is abandoned */
+	public static final int DEFAULT_MAX_TURNS = 100000;
+
+	/** strategy for each seat */
+	private final Strategy[] strategies;
+
+	/** threshold strategy of each seat, null unless every seat has one */
+	private final ThresholdStrategy[] thresholds;
+
+	/** game reused by the packed path, created on first use */
+	private PackedGreedGame packed;
+
+	/** winning score of each game */
+	private final int winScore;
+
+	/** turns after which a game is abandoned */
+	private int maxTurns;
+
+	/** turns taken in the last game played */
+	private int lastTurns;
+
+	/** random source for dice rolls, null for the game default */
+	private RandomSource rng;
+
+	/** scoring rules, null for the standard rules */
+	private RuleSet rules;
+
+	/** log every game is recorded to, may be null */
+	private GameLogWriter log;
+
+	/** listener of every game, may be null */
+	private GameListener listener;
+
+	/** result receiving per turn and per game details, may be null */
+	private SimulationResult stats;
+
+	/*******************************************************************
+	 *
+	 * Constructor that sets the seats and winning score
+	 *
+	 * @param winScore winning score of each game
+	 * @param strategies strategy for each seat, at least two
+	 ******************************************************************/
+
+	public Simulator(int winScore, Strategy... strategies) {
+		if(strategies.length < 2)
+			throw new IllegalArgumentException();
+
+		this.strategies = strategies.clone();
+		this.winScore = winScore;
+		this.maxTurns = DEFAULT_MAX_TURNS;
+
+		ThresholdStrategy[] t = new ThresholdStrategy[strategies.length];
+		for(int i = 0; i<t.length; i++) {
+			if(!(strategies[i] instanceof ThresholdStrategy)) {
+				t = null;
+				break;
+			}
+			t[i] = (ThresholdStrategy) strategies[i];
+		}
+		this.thresholds = t;
+	}
+
+	/*******************************************************************
+	 * Plays one complete game
+	 *
+	 * @param startPlayer seat that takes the first turn
+	 * @return winning seat, or -1 if the turn limit was reached
+	 ******************************************************************/
+
+	public int play(int startPlayer) {
+		if(thresholds != null && log == null && listener == null)
+			return playPacked(startPlayer);
+
+		GreedGame game = GamePool.acquire(strategies.length, startPlayer,
+				winScore);
+		try {
+			game.setRandom(rng);
+			game.setRules(rules);
+			game.setListener(listener);
+			if(log != null)
+				log.record(game);
+
+			int turns = 0;
+			while(!game.isWon()) {
+				if(turns == maxTurns) {
+					lastTurns = turns;
+					return -1;
+				}
+				playTurn(game, strategies[game.getPlayerTurn()]);
+				turns++;
+			}
+
+			lastTurns = turns;
+			if(stats != null) {
+				for(int i = 0; i<strategies.length; i++) {
+					stats.recordScore(i, game.getScore(i));
+				}
+			}
+			return game.getWinnerId();
+		} finally {
+			GamePool.release(game);
+		}
+	}
+
+	/*******************************************************************
+	 * Plays a single turn for the current player, rolling until the
+	 * player busts or the strategy passes the dice
+	 *
+	 * @param game game in progress
+	 * @param strategy strategy of the current player
+	 ******************************************************************/
+
+	private void playTurn(GreedGame game, Strategy strategy) {
+		int rolls = 0;
+		while(true) {
+			int avail = game.getDiceAvail();
+			game.rollDice();
+			game.turn();
+			rolls++;
+			if(stats != null)
+				stats.recordRoll(avail, game.getRollScore());
+
+			//zero points loses the turn score
+			if(game.getRollScore() == 0) {
+				game.setTurnScore(0);
+				game.passDice();
+				break;
+			}
+
+			if(!strategy.rollAgain(game)) {
+				game.passDice();
+				break;
+			}
+		}
+
+		if(stats != null)
+			stats.recordTurn(rolls);
+	}
+
+	/*******************************************************************
+	 * Plays one complete game on the packed game, with every seat
+	 * deciding by its threshold
+	 *
+	 * @param startPlayer seat that takes the first turn
+	 * @return winning seat, or -1 if the turn limit was reached
+	 ******************************************************************/
+
+	private int playPacked(int startPlayer) {
+		PackedGreedGame game = packed;
+		if(game == null)
+			packed = game = new PackedGreedGame(strategies.length,
+					startPlayer, winScore);
+		game.reset(startPlayer, winScore);
+		game.setRules(rules);
+		RandomSource r = rng == null ? ThreadLocalRandomSource.INSTANCE :
+			rng;
+
+		int turns = 0;
+		while(!game.isWon()) {
+			if(turns == maxTurns) {
+				lastTurns = turns;
+				return -1;
+			}
+			playPackedTurn(game, r, thresholds[game.getPlayerTurn()]);
+			turns++;
+		}
+
+		lastTurns = turns;
+		if(stats != null) {
+			for(int i = 0; i<strategies.length; i++) {
+				stats.recordScore(i, game.getScore(i));
+			}
+		}
+		return game.getWinnerId();
+	}
+
+	/*******************************************************************
+	 * Plays a single turn of a packed game, following the same steps as
+	 * playTurn()
+	 *
+	 * @param game game in progress
+	 * @param r random source of the dice
+	 * @param strategy strategy of the current player
+	 ******************************************************************/
+
+	private void playPackedTurn(PackedGreedGame game, RandomSource r,
+			ThresholdStrategy strategy) {
+		int rolls = 0;
+		while(true) {
+			int avail = game.getDiceAvail();
+			game.rollDice(r);
+			game.turn();
+			rolls++;
+			if(stats != null)
+				stats.recordRoll(avail, game.getRollScore());
+
+			//zero points loses the turn score
+			if(game.getRollScore() == 0) {
+				game.setTurnScore(0);
+				game.passDice();
+				break;
+			}
+
+			if(!strategy.rollAgain(game.getCurrScore(),
+					game.getTurnScore(), winScore)) {
+				game.passDice();
+				break;
+			}
+		}
+
+		if(stats != null)
+			stats.recordTurn(rolls);
+	}
+
+	/*******************************************************************
+	 * Plays a batch of games
+	 *
+	 * @param games number of games to play
+	 * @param startPlayer seat that takes the first turn of each game,
+	 * or ROTATE to move the first turn round the table game by game
+	 * @param result result to accumulate into
+	 * @return the result passed in
+	 ******************************************************************/
+
+	public SimulationResult run(long games, int startPlayer,
+			SimulationResult result) {
+		return run(games, startPlayer, 0, result);
+	}
+
+	/*******************************************************************
+	 * Plays a batch of games that is part of a larger run
+	 *
+	 * @param games number of games to play
+	 * @param startPlayer seat that takes the first turn, or ROTATE
+	 * @param firstGame index of the first game within the whole run,
+	 * used to rotate the first turn
+	 * @param result result to accumulate into
+	 * @return the result passed in
+	 ******************************************************************/
+
+	SimulationResult run(long games, int startPlayer, long firstGame,
+			SimulationResult result) {
+		int n = strategies.length;
+		stats = result;
+		try {
+			for(long i = 0; i<games; i++) {
+				int start = startPlayer == ROTATE ?
+						(int) ((firstGame + i) % n) : startPlayer;
+				int winner = play(start);
+				result.recordGame(start, winner, lastTurns);
+			}
+		} finally {
+			stats = null;
+		}
+		return result;
+	}
+
+	/*******************************************************************
+	 * Plays a batch of games
+	 *
+	 * @param games number of games to play
+	 * @param startPlayer seat that takes the first turn of each game,
+	 * or ROTATE to move the first turn round the table game by game
+	 * @return accumulated result
+	 ******************************************************************/
+
+	public SimulationResult run(long games, int startPlayer) {
+		return run(games, startPlayer,
+				new SimulationResult(strategies.length));
+	}
+
+	/*******************************************************************
+	 * Getter method to return number of seats
+	 *
+	 * @return number of seats
+	 ******************************************************************/
+
+	public int getNumPlayers() {
+		return strategies.length;
+	}
+
+	/*******************************************************************
+	 * Getter method to return the winning score
+	 *
+	 * @return winScore winning score
+	 ******************************************************************/
+
+	public int getWinScore() {
+		return winScore;
+	}
+
+	/*******************************************************************
+	 * Setter method to set the turn limit per game
+	 *
+	 * @param maxTurns turns after which a game is abandoned
+	 ******************************************************************/
+
+	public void setMaxTurns(int maxTurns) {
+		this.maxTurns = maxTurns;
+	}
+
+	/*******************************************************************
+	 * Setter method to set the random source used for dice rolls
+	 * 
+	 * @param rng random source, or null for the game default
+	 ******************************************************************/
+
+	public void setRandom(RandomSource rng) {
+		this.rng = rng;
+	}
+
+	/*******************************************************************
+	 * Setter method to set the scoring rules of every game
+	 * 
+	 * @param rules rule set, or null for the standard rules
+	 ******************************************************************/
+
+	public void setRules(RuleSet rules) {
+		this.rules = rules;
+	}
+
+	/*******************************************************************
+	 * Setter method to set the log every game is recorded to
+	 * 
+	 * @param log game log, or null to not record
+	 ******************************************************************/
+
+	public void setLog(GameLogWriter log) {
+		this.log = log;
+	}
+
+	/*******************************************************************
+	 * Setter method to set the listener of every game, such as a
+	 * RollTape. A log set as well records the games alongside it.
+	 * 
+	 * @param listener listener, or null for none
+	 ******************************************************************/
+
+	public void setListener(GameListener listener) {
+		this.listener = listener;
+	}
+
+	/*******************************************************************
+	 * Main method runs a batch of games between threshold strategies.
+	 * Usage: Simulator games winScore threshold threshold...
+	 ******************************************************************/
+
+	public static void main(String[] args) {
+		if(args.length < 4) {
+			System.out.println("Usage: Simulator games winScore " +
+					"threshold threshold...");
+			return;
+		}
+
+		long games = Long.parseLong(args[0]);
+		int winScore = Integer.parseInt(args[1]);
+		Strategy[] strategies = new Strategy[args.length-2];
+		for(int i = 0; i<strategies.length; i++) {
+			strategies[i] =
+					new ThresholdStrategy(Integer.parseInt(args[i+2]));
+		}
+
+		Simulator sim = new Simulator(winScore, strategies);
+		long start = System.nanoTime();
+		SimulationResult result = sim.run(games, ROTATE);
+		double secs = (System.nanoTime() - start) / 1e9;
+
+		System.out.println(result);
+		System.out.println(String.format("First player wins: %.4f",
+				result.getFirstPlayerWinRate()));
+		System.out.println(String.format("%.0f games/sec",
+				games / secs));
+	}
+}
@@ -0,0 +1,26 @@
+package sim;
+
+import model.GreedGame;
+
+/***********************************************************************
+ * @author Matt Conflitti
+ * @version 1.006092015
+ * 
+ * Strategy makes the roll again / bank decision for a seat in a
+ * headless game. It is consulted after every scoring roll, the same
+ * point at which GreedCLI prompts a human player.
+ **********************************************************************/
+
+public interface Strategy {
+
+	/*******************************************************************
+	 * Decides whether the current player keeps rolling. Implementations
+	 * should only read the game and must be safe to share between
+	 * threads.
+	 * 
+	 * @param game game positioned after a scoring roll
+	 * @return true to roll again, false to pass the dice
+	 ******************************************************************/
+
+	boolean rollAgain(GreedGame game);
+}
@@ -0,0 +1,78 @@
+package sim;
+
+import model.GreedGame;
+
+/***********************************************************************
+ * @author Matt Conflitti
+ * @version 1.006092015
+ * 
+ * ThresholdStrategy keeps rolling until the turn score reaches a fixed
+ * threshold or banking would win the game.
+ **********************************************************************/
+
+public class ThresholdStrategy implements Strategy {
+
+	/** turn score at which the strategy banks */
+	private final int threshold;
+
+	/*******************************************************************
+	 * 
+	 * Constructor that sets the banking threshold
+	 * 
+	 * @param threshold turn score at which to pass the dice
+	 ******************************************************************/
+
+	public ThresholdStrategy(int threshold) {
+		this.threshold = threshold;
+	}
+
+	/*******************************************************************
+	 * Rolls again while below the threshold and short of the win score
+	 * 
+	 * @param game game positioned after a scoring roll
+	 * @return true to roll again
+	 ******************************************************************/
+
+	@Override
+	public boolean rollAgain(GreedGame game) {
+		return rollAgain(game.getScore(game.getPlayerTurn()),
+				game.getTurnScore(), game.getWinScore());
+	}
+
+	/*******************************************************************
+	 * Rolls again while below the threshold and short of the win score,
+	 * deciding from the scores alone so packed games can use it
+	 * 
+	 * @param score game score of the player to move
+	 * @param turnScore current turn score
+	 * @param winScore winning score of the game
+	 * @return true to roll again
+	 ******************************************************************/
+
+	public boolean rollAgain(int score, int turnScore, int winScore) {
+		if(score + turnScore >= winScore)
+			return false;
+		return turnScore < threshold;
+	}
+
+	/*******************************************************************
+	 * Getter method to return the banking threshold
+	 * 
+	 * @return threshold
+	 ******************************************************************/
+
+	public int getThreshold() {
+		return threshold;
+	}
+
+	/*******************************************************************
+	 * Returns a string representation of this strategy
+	 * 
+	 * @return string form of this object
+	 ******************************************************************/
+
+	@Override
+	public String toString() {
+		return "Threshold(" + threshold + ")";
+	}
+}
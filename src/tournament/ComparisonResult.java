@@ -0,0 +1,168 @@
+package tournament;
+
+/***********************************************************************
+ * @author Matt Conflitti
+ * @version 1.006092015
+ *
+ * ComparisonResult accumulates a paired comparison of two strategies.
+ * Each sample is the win rate of both strategies over games rolled from
+ * the same dice, so the difference between them is measured sample by
+ * sample. The variance of that difference is reported against what
+ * the same number of games with independent dice would give.
+ **********************************************************************/
+
+public class ComparisonResult {
+
+	/** games each sample plays per strategy */
+	private final int gamesPerSample;
+
+	/** paired samples recorded */
+	private long samples;
+
+	/** sum of the first strategy's sample win rates */
+	private double sumA;
+
+	/** sum of the second strategy's sample win rates */
+	private double sumB;
+
+	/** sum of the differences between sample win rates */
+	private double sumD;
+
+	/** sum of the squared differences between sample win rates */
+	private double sumD2;
+
+	/*******************************************************************
+	 *
+	 * Constructor that sets the games in each sample
+	 *
+	 * @param gamesPerSample games each sample plays per strategy, 2 when
+	 * every tape is also replayed antithetically
+	 ******************************************************************/
+
+	public ComparisonResult(int gamesPerSample) {
+		this.gamesPerSample = gamesPerSample;
+	}
+
+	/*******************************************************************
+	 * Records one paired sample
+	 *
+	 * @param a first strategy's win rate over the sample's games
+	 * @param b second strategy's win rate over the same dice
+	 ******************************************************************/
+
+	public void record(double a, double b) {
+		double d = a - b;
+		samples++;
+		sumA += a;
+		sumB += b;
+		sumD += d;
+		sumD2 += d * d;
+	}
+
+	/*******************************************************************
+	 * Getter method to return the paired samples recorded
+	 *
+	 * @return samples
+	 ******************************************************************/
+
+	public long getSamples() {
+		return samples;
+	}
+
+	/*******************************************************************
+	 * Getter method to return the games each strategy played
+	 *
+	 * @return games per strategy
+	 ******************************************************************/
+
+	public long getGames() {
+		return samples * gamesPerSample;
+	}
+
+	/*******************************************************************
+	 * Getter method to return the first strategy's win rate
+	 *
+	 * @return win rate
+	 ******************************************************************/
+
+	public double getWinRateA() {
+		return samples == 0 ? 0 : sumA / samples;
+	}
+
+	/*******************************************************************
+	 * Getter method to return the second strategy's win rate
+	 *
+	 * @return win rate
+	 ******************************************************************/
+
+	public double getWinRateB() {
+		return samples == 0 ? 0 : sumB / samples;
+	}
+
+	/*******************************************************************
+	 * Returns the estimated win rate difference, first minus second
+	 *
+	 * @return difference
+	 ******************************************************************/
+
+	public double getDifference() {
+		return samples == 0 ? 0 : sumD / samples;
+	}
+
+	/*******************************************************************
+	 * Returns the variance of the estimated difference from the spread
+	 * of the paired samples
+	 *
+	 * @return variance of the difference
+	 ******************************************************************/
+
+	public double getVariance() {
+		if(samples < 2)
+			return Double.NaN;
+		double mean = sumD / samples;
+		double var = (sumD2 - samples * mean * mean) / (samples - 1);
+		return Math.max(var, 0) / samples;
+	}
+
+	/*******************************************************************
+	 * Returns the variance the difference would have over the same
+	 * number of games with independent dice for each strategy
+	 *
+	 * @return variance of the difference with independent dice
+	 ******************************************************************/
+
+	public double getIndependentVariance() {
+		double a = getWinRateA();
+		double b = getWinRateB();
+		long games = getGames();
+		return games == 0 ? Double.NaN :
+			(a * (1 - a) + b * (1 - b)) / games;
+	}
+
+	/*******************************************************************
+	 * Returns how many times fewer games the paired comparison needs
+	 * for the same confidence as independent dice
+	 *
+	 * @return variance reduction factor
+	 ******************************************************************/
+
+	public double getReduction() {
+		return getIndependentVariance() / getVariance();
+	}
+
+	/*******************************************************************
+	 * Returns a string representation of this result
+	 *
+	 * @return string form of this object
+	 ******************************************************************/
+
+	public String toString() {
+		return String.format("Games per strategy: %d%n" +
+				"Win rates: %.4f vs %.4f%n" +
+				"Difference: %+.4f +/- %.4f (independent dice +/- %.4f)%n" +
+				"Variance reduction: %.2fx fewer games for the same " +
+				"confidence", getGames(), getWinRateA(), getWinRateB(),
+				getDifference(), 1.96 * Math.sqrt(getVariance()),
+				1.96 * Math.sqrt(getIndependentVariance()), getReduction());
+	}
+}
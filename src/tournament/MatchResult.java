@@ -0,0 +1,168 @@
+package tournament;
+
+/***********************************************************************
+ * @author Matt Conflitti
+ * @version 1.006092015
+ *
+ * MatchResult records a head to head match between two entrants of a
+ * tournament: the games each won and which side, if either, the
+ * sequential tests found to be stronger when the match stopped.
+ **********************************************************************/
+
+public class MatchResult {
+
+	/** outcome when the first entrant was found stronger */
+	public static final int FIRST = 0;
+
+	/** outcome when the second entrant was found stronger */
+	public static final int SECOND = 1;
+
+	/** outcome when neither entrant was found stronger */
+	public static final int UNDECIDED = -1;
+
+	/** index of the first entrant */
+	private final int first;
+
+	/** index of the second entrant */
+	private final int second;
+
+	/** games won by the first entrant */
+	private final long firstWins;
+
+	/** games won by the second entrant */
+	private final long secondWins;
+
+	/** games abandoned at the turn limit */
+	private final long unfinished;
+
+	/** log likelihood ratio of the first entrant being stronger against
+	 * equal strength when the match stopped */
+	private final double llr;
+
+	/** FIRST, SECOND or UNDECIDED */
+	private final int outcome;
+
+	/*******************************************************************
+	 *
+	 * Constructor that records a finished match
+	 *
+	 * @param first index of the first entrant
+	 * @param second index of the second entrant
+	 * @param firstWins games won by the first entrant
+	 * @param secondWins games won by the second entrant
+	 * @param unfinished games abandoned at the turn limit
+	 * @param llr log likelihood ratio of the first entrant being
+	 * stronger when the match stopped
+	 * @param outcome FIRST, SECOND or UNDECIDED
+	 ******************************************************************/
+
+	public MatchResult(int first, int second, long firstWins,
+			long secondWins, long unfinished, double llr, int outcome) {
+		this.first = first;
+		this.second = second;
+		this.firstWins = firstWins;
+		this.secondWins = secondWins;
+		this.unfinished = unfinished;
+		this.llr = llr;
+		this.outcome = outcome;
+	}
+
+	/*******************************************************************
+	 * Getter method to return the index of the first entrant
+	 *
+	 * @return first entrant
+	 ******************************************************************/
+
+	public int getFirst() {
+		return first;
+	}
+
+	/*******************************************************************
+	 * Getter method to return the index of the second entrant
+	 *
+	 * @return second entrant
+	 ******************************************************************/
+
+	public int getSecond() {
+		return second;
+	}
+
+	/*******************************************************************
+	 * Getter method to return games won by the first entrant
+	 *
+	 * @return wins
+	 ******************************************************************/
+
+	public long getFirstWins() {
+		return firstWins;
+	}
+
+	/*******************************************************************
+	 * Getter method to return games won by the second entrant
+	 *
+	 * @return wins
+	 ******************************************************************/
+
+	public long getSecondWins() {
+		return secondWins;
+	}
+
+	/*******************************************************************
+	 * Getter method to return games played, including unfinished ones
+	 *
+	 * @return games
+	 ******************************************************************/
+
+	public long getGames() {
+		return firstWins + secondWins + unfinished;
+	}
+
+	/*******************************************************************
+	 * Getter method to return the log likelihood ratio of the first
+	 * entrant being stronger against equal strength when the match
+	 * stopped
+	 *
+	 * @return llr
+	 ******************************************************************/
+
+	public double getLlr() {
+		return llr;
+	}
+
+	/*******************************************************************
+	 * Getter method to return the outcome of the match
+	 *
+	 * @return FIRST, SECOND or UNDECIDED
+	 ******************************************************************/
+
+	public int getOutcome() {
+		return outcome;
+	}
+
+	/*******************************************************************
+	 * Returns the match points an entrant earned: 1 for a decided win,
+	 * half each for an undecided match
+	 *
+	 * @param entrant index of the entrant
+	 * @return match points
+	 ******************************************************************/
+
+	public double getPoints(int entrant) {
+		if(outcome == UNDECIDED)
+			return 0.5;
+		return (outcome == FIRST) == (entrant == first) ? 1 : 0;
+	}
+
+	/*******************************************************************
+	 * Returns a string representation of this match
+	 *
+	 * @return string form of this object
+	 ******************************************************************/
+
+	public String toString() {
+		String result = outcome == UNDECIDED ? "undecided" :
+			(outcome == FIRST ? "first" : "second") + " stronger";
+		return (first+1) + " vs " + (second+1) + ": " + firstWins + "-" +
+				secondWins + " in " + getGames() + " games, " + result;
+	}
+}
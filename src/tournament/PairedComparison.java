@@ -0,0 +1,194 @@
+package tournament;
+
+import model.RollTape;
+import sim.Simulator;
+import sim.Strategy;
+
+/***********************************************************************
+ * @author Matt Conflitti
+ * @version 1.006092015
+ *
+ * PairedComparison measures the difference between two strategies with
+ * common random numbers. Each strategy takes the same seat against the
+ * same opponents, and for every game both play from one replayable roll
+ * tape, so a game lost to bad dice is lost to bad dice for both and
+ * drops out of the difference. Optionally every tape is also replayed
+ * antithetically, with every die showing its opposite face.
+ *
+ * The tape keeps every turn's dice the same, but once the strategies
+ * bank different scores the games play out differently, so the
+ * reduction is largest for similar strategies, which are also the
+ * hardest to tell apart.
+ **********************************************************************/
+
+public class PairedComparison {
+
+	/** plays the first strategy against the opponents */
+	private final Simulator simA;
+
+	/** plays the second strategy against the opponents */
+	private final Simulator simB;
+
+	/** tape both simulators roll from */
+	private final RollTape tape;
+
+	/** number of seats */
+	private final int numPlayers;
+
+	/** master seed every tape derives from */
+	private long seed;
+
+	/** true to replay every tape antithetically as well */
+	private boolean antithetic;
+
+	/*******************************************************************
+	 *
+	 * Constructor that sets the strategies, the opponents and the
+	 * winning score. The compared strategy takes seat 0.
+	 *
+	 * @param winScore winning score of each game
+	 * @param a first strategy to compare
+	 * @param b second strategy to compare
+	 * @param opponents strategies in the other seats, at least one
+	 ******************************************************************/
+
+	public PairedComparison(int winScore, Strategy a, Strategy b,
+			Strategy... opponents) {
+		if(opponents.length < 1)
+			throw new IllegalArgumentException();
+
+		numPlayers = opponents.length + 1;
+		Strategy[] seatsA = new Strategy[numPlayers];
+		Strategy[] seatsB = new Strategy[numPlayers];
+		seatsA[0] = a;
+		seatsB[0] = b;
+		for(int i = 0; i<opponents.length; i++) {
+			seatsA[i+1] = opponents[i];
+			seatsB[i+1] = opponents[i];
+		}
+
+		tape = new RollTape(0);
+		simA = new Simulator(winScore, seatsA);
+		simB = new Simulator(winScore, seatsB);
+		simA.setRandom(tape);
+		simB.setRandom(tape);
+		simA.setListener(tape);
+		simB.setListener(tape);
+	}
+
+	/*******************************************************************
+	 * Plays paired samples. Sample i rolls from a tape seeded from the
+	 * master seed and i, and rotates the first turn through the seats.
+	 *
+	 * @param samples number of tapes to play
+	 * @param result result to accumulate into
+	 * @return the result passed in
+	 ******************************************************************/
+
+	public ComparisonResult run(long samples, ComparisonResult result) {
+		for(long i = 0; i<samples; i++) {
+			tape.setSeed(seed + (i+1) * 0x9E3779B97F4A7C15L);
+			int start = (int) (i % numPlayers);
+
+			double a = playPair(start, false, simA);
+			double b = playPair(start, false, simB);
+			if(antithetic) {
+				a = (a + playPair(start, true, simA)) / 2;
+				b = (b + playPair(start, true, simB)) / 2;
+			}
+			result.record(a, b);
+		}
+		return result;
+	}
+
+	/*******************************************************************
+	 * Plays paired samples into a new result
+	 *
+	 * @param samples number of tapes to play
+	 * @return accumulated result
+	 ******************************************************************/
+
+	public ComparisonResult run(long samples) {
+		return run(samples, new ComparisonResult(antithetic ? 2 : 1));
+	}
+
+	/*******************************************************************
+	 * Helper method plays one game from the start of the tape
+	 *
+	 * @param start seat that takes the first turn
+	 * @param opposite true to play the tape antithetically
+	 * @param sim simulator of the strategy to play
+	 * @return 1 if the compared strategy won, 0 otherwise
+	 ******************************************************************/
+
+	private double playPair(int start, boolean opposite, Simulator sim) {
+		tape.rewind(opposite);
+		return sim.play(start) == 0 ? 1 : 0;
+	}
+
+	/*******************************************************************
+	 * Setter method to set the master seed
+	 *
+	 * @param seed seed every tape derives from
+	 ******************************************************************/
+
+	public void setSeed(long seed) {
+		this.seed = seed;
+	}
+
+	/*******************************************************************
+	 * Setter method to set whether every tape is also replayed
+	 * antithetically
+	 *
+	 * @param antithetic true to play each tape twice, once with every
+	 * die showing its opposite face
+	 ******************************************************************/
+
+	public void setAntithetic(boolean antithetic) {
+		this.antithetic = antithetic;
+	}
+
+	/*******************************************************************
+	 * Main method compares two strategies against the same opponents,
+	 * with and without antithetic replays.
+	 * Usage: PairedComparison [--seed n] games winScore a b opponent...
+	 * where each strategy is a threshold or "expectimax"
+	 ******************************************************************/
+
+	public static void main(String[] args) {
+		long seed = 0;
+		int a = 0;
+		if(args.length > 1 && args[0].equals("--seed")) {
+			seed = Long.parseLong(args[1]);
+			a = 2;
+		}
+
+		if(args.length - a < 5) {
+			System.out.println("Usage: PairedComparison [--seed n] games " +
+					"winScore a b opponent...");
+			return;
+		}
+
+		long games = Long.parseLong(args[a]);
+		int winScore = Integer.parseInt(args[a+1]);
+		Strategy first = Tournament.parseStrategy(args[a+2]);
+		Strategy second = Tournament.parseStrategy(args[a+3]);
+		Strategy[] opponents = new Strategy[args.length - a - 4];
+		for(int i = 0; i<opponents.length; i++) {
+			opponents[i] = Tournament.parseStrategy(args[a + 4 + i]);
+		}
+
+		PairedComparison cmp = new PairedComparison(winScore, first, second,
+				opponents);
+		cmp.setSeed(seed);
+
+		System.out.println(first + " vs " + second + ", common dice:");
+		System.out.println(cmp.run(games));
+		System.out.println();
+
+		cmp.setAntithetic(true);
+		System.out.println(first + " vs " + second +
+				", common dice with antithetic replays:");
+		System.out.println(cmp.run(games / 2));
+	}
+}
@@ -0,0 +1,585 @@
+package tournament;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+import ai.ExpectimaxStrategy;
+import model.Xoshiro256Random;
+import sim.SimulationResult;
+import sim.Simulator;
+import sim.Strategy;
+import sim.ThresholdStrategy;
+
+/***********************************************************************
+ * @author Matt Conflitti
+ * @version 1.006092015
+ *
+ * Tournament plays head to head matches between strategies and ranks
+ * them. Pairings are either a full round robin or a number of Swiss
+ * rounds, and the matches of a round run in parallel.
+ *
+ * Within a match the first turn alternates between the two seats game
+ * by game, so each strategy starts half the games. The games are played
+ * in small batches and after each batch two sequential probability
+ * ratio tests (SPRT) weigh "equally strong" against "first entrant is
+ * elo stronger" and against "second entrant is elo stronger", each at
+ * half the error rate. The match is won as soon as either strength is
+ * accepted and is undecided once both tests accept equal strength or
+ * the game limit is reached, so clear mismatches are decided in a few
+ * hundred games rather than a fixed large count.
+ *
+ * Ratings are Bradley-Terry maximum likelihood estimates over every
+ * game played, on the Elo scale.
+ **********************************************************************/
+
+public class Tournament {
+
+	/** Elo rating the entrants are centred on */
+	public static final double BASE_RATING = 1500;
+
+	/** games between sequential test checks, kept even so starts
+	 * stay balanced */
+	public static final int BATCH = 100;
+
+	/** default games after which an undecided match stops */
+	public static final int DEFAULT_MAX_GAMES = 20000;
+
+	/** default Elo difference the test distinguishes */
+	public static final double DEFAULT_ELO = 20;
+
+	/** default false positive and false negative rate of the tests */
+	public static final double DEFAULT_ERROR = 0.05;
+
+	/** entrants */
+	private final Strategy[] entrants;
+
+	/** winning score of each game */
+	private final int winScore;
+
+	/** pool matches run in */
+	private ForkJoinPool pool;
+
+	/** master seed every match's random stream derives from */
+	private long seed;
+
+	/** games after which an undecided match stops */
+	private long maxGames;
+
+	/** Elo difference the test distinguishes */
+	private double elo;
+
+	/** false positive and false negative rate of the tests */
+	private double error;
+
+	/** every match played so far */
+	private final List<MatchResult> matches = new ArrayList<>();
+
+	/** match points from byes, indexed by entrant */
+	private final double[] byes;
+
+	/*******************************************************************
+	 *
+	 * Constructor that sets the entrants and winning score
+	 *
+	 * @param winScore winning score of each game
+	 * @param entrants strategies to rank, at least two
+	 ******************************************************************/
+
+	public Tournament(int winScore, Strategy... entrants) {
+		if(entrants.length < 2)
+			throw new IllegalArgumentException();
+
+		this.entrants = entrants.clone();
+		this.byes = new double[entrants.length];
+		this.winScore = winScore;
+		this.pool = ForkJoinPool.commonPool();
+		this.maxGames = DEFAULT_MAX_GAMES;
+		this.elo = DEFAULT_ELO;
+		this.error = DEFAULT_ERROR;
+	}
+
+	/*******************************************************************
+	 * Plays every pair of entrants once
+	 *
+	 * @return matches played
+	 ******************************************************************/
+
+	public List<MatchResult> roundRobin() {
+		List<int[]> pairs = new ArrayList<>();
+		for(int i = 0; i<entrants.length; i++) {
+			for(int j = i+1; j<entrants.length; j++) {
+				pairs.add(new int[] {i, j});
+			}
+		}
+		return playAll(pairs);
+	}
+
+	/*******************************************************************
+	 * Plays Swiss rounds: each round pairs entrants with the closest
+	 * standing they have not met yet. With an odd number of entrants
+	 * the lowest entrant without a bye sits the round out and scores
+	 * a match win.
+	 *
+	 * @param rounds rounds to play
+	 * @return matches played
+	 ******************************************************************/
+
+	public List<MatchResult> swiss(int rounds) {
+		List<MatchResult> played = new ArrayList<>();
+		boolean[] hadBye = new boolean[entrants.length];
+
+		for(int r = 0; r<rounds; r++) {
+			Integer[] order = standings(getPoints());
+			List<Integer> open = new ArrayList<>(Arrays.asList(order));
+
+			//bye for the lowest entrant that has not had one
+			if(open.size() % 2 == 1) {
+				for(int k = open.size()-1; k>=0; k--) {
+					int e = open.get(k);
+					if(!hadBye[e] || k == 0) {
+						hadBye[e] = true;
+						byes[e] += 1;
+						open.remove(k);
+						break;
+					}
+				}
+			}
+
+			//pair top down with the nearest entrant not yet met
+			List<int[]> pairs = new ArrayList<>();
+			while(!open.isEmpty()) {
+				int a = open.remove(0);
+				int pick = 0;
+				for(int k = 0; k<open.size(); k++) {
+					if(!met(a, open.get(k))) {
+						pick = k;
+						break;
+					}
+				}
+				pairs.add(new int[] {a, open.remove(pick)});
+			}
+			played.addAll(playAll(pairs));
+		}
+		return played;
+	}
+
+	/*******************************************************************
+	 * Helper method sorts entrants by points, then by game win rate
+	 *
+	 * @param points match points of each entrant
+	 * @return entrant indexes, best first
+	 ******************************************************************/
+
+	private Integer[] standings(double[] points) {
+		double[] rate = getGameWinRates();
+		Integer[] order = new Integer[entrants.length];
+		for(int i = 0; i<order.length; i++) {
+			order[i] = i;
+		}
+		Arrays.sort(order, Comparator.<Integer>comparingDouble(
+				i -> -points[i]).thenComparingDouble(i -> -rate[i]));
+		return order;
+	}
+
+	/*******************************************************************
+	 * Helper method checks whether two entrants have already met
+	 *
+	 * @param a first entrant
+	 * @param b second entrant
+	 * @return true if they have played a match
+	 ******************************************************************/
+
+	private boolean met(int a, int b) {
+		for(MatchResult m : matches) {
+			if((m.getFirst() == a && m.getSecond() == b) ||
+					(m.getFirst() == b && m.getSecond() == a))
+				return true;
+		}
+		return false;
+	}
+
+	/*******************************************************************
+	 * Plays a set of matches in parallel and records them
+	 *
+	 * @param pairs entrant index pairs to play
+	 * @return matches played, in the order given
+	 ******************************************************************/
+
+	private List<MatchResult> playAll(List<int[]> pairs) {
+		List<Callable<MatchResult>> tasks = new ArrayList<>();
+		for(int[] p : pairs) {
+			long matchSeed = seed + (matches.size() + tasks.size() + 1) *
+					0x9E3779B97F4A7C15L;
+			tasks.add(() -> playMatch(p[0], p[1], matchSeed));
+		}
+
+		List<MatchResult> results = new ArrayList<>();
+		try {
+			for(Future<MatchResult> f : pool.invokeAll(tasks)) {
+				results.add(f.get());
+			}
+		} catch(InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException(e);
+		} catch(ExecutionException e) {
+			throw new IllegalStateException(e.getCause());
+		}
+
+		matches.addAll(results);
+		return results;
+	}
+
+	/*******************************************************************
+	 * Plays a match until the sequential tests decide it or the game
+	 * limit is reached
+	 *
+	 * @param a index of the first entrant
+	 * @param b index of the second entrant
+	 * @param matchSeed seed of the match's random stream
+	 * @return match result
+	 ******************************************************************/
+
+	public MatchResult playMatch(int a, int b, long matchSeed) {
+		Simulator sim = new Simulator(winScore, entrants[a], entrants[b]);
+		sim.setRandom(new Xoshiro256Random(matchSeed));
+		SimulationResult result = new SimulationResult(2);
+
+		//per game log likelihood steps of the stronger side against
+		//equal strength, and SPRT bounds at half the error rate for
+		//each of the two one sided tests
+		double p0 = expected(0);
+		double p1 = expected(elo);
+		double winStep = Math.log(p1 / p0);
+		double lossStep = Math.log((1 - p1) / (1 - p0));
+		double half = error / 2;
+		double lower = Math.log(half / (1 - half));
+		double upper = Math.log((1 - half) / half);
+
+		//a test that accepts equal strength stays closed
+		boolean firstOpen = true;
+		boolean secondOpen = true;
+		double llr = 0;
+		int outcome = MatchResult.UNDECIDED;
+		while(result.getGames() < maxGames && (firstOpen || secondOpen)) {
+			int games = (int) Math.min(BATCH, maxGames - result.getGames());
+			sim.run(games, Simulator.ROTATE, result);
+
+			llr = result.getWins(0) * winStep +
+					result.getWins(1) * lossStep;
+			double secondLlr = result.getWins(1) * winStep +
+					result.getWins(0) * lossStep;
+			if(firstOpen && llr >= upper) {
+				outcome = MatchResult.FIRST;
+				break;
+			}
+			if(secondOpen && secondLlr >= upper) {
+				outcome = MatchResult.SECOND;
+				break;
+			}
+			if(llr <= lower)
+				firstOpen = false;
+			if(secondLlr <= lower)
+				secondOpen = false;
+		}
+
+		return new MatchResult(a, b, result.getWins(0), result.getWins(1),
+				result.getUnfinished(), llr, outcome);
+	}
+
+	/*******************************************************************
+	 * Returns the expected score of a player rated elo points above
+	 * the opponent
+	 *
+	 * @param elo rating difference
+	 * @return win probability
+	 ******************************************************************/
+
+	public static double expected(double elo) {
+		return 1 / (1 + Math.pow(10, -elo / 400));
+	}
+
+	/*******************************************************************
+	 * Returns the match points of each entrant, byes included
+	 *
+	 * @return points indexed by entrant
+	 ******************************************************************/
+
+	public double[] getPoints() {
+		double[] points = byes.clone();
+		for(MatchResult m : matches) {
+			points[m.getFirst()] += m.getPoints(m.getFirst());
+			points[m.getSecond()] += m.getPoints(m.getSecond());
+		}
+		return points;
+	}
+
+	/*******************************************************************
+	 * Returns the fraction of finished games each entrant won
+	 *
+	 * @return win rates indexed by entrant
+	 ******************************************************************/
+
+	public double[] getGameWinRates() {
+		long[][] wins = wins();
+		double[] rate = new double[entrants.length];
+		for(int i = 0; i<rate.length; i++) {
+			long won = 0;
+			long games = 0;
+			for(int j = 0; j<rate.length; j++) {
+				won += wins[i][j];
+				games += wins[i][j] + wins[j][i];
+			}
+			rate[i] = games == 0 ? 0 : (double) won / games;
+		}
+		return rate;
+	}
+
+	/*******************************************************************
+	 * Helper method totals the games each entrant won against each
+	 * other entrant
+	 *
+	 * @return wins[i][j] games i won against j
+	 ******************************************************************/
+
+	private long[][] wins() {
+		long[][] wins = new long[entrants.length][entrants.length];
+		for(MatchResult m : matches) {
+			wins[m.getFirst()][m.getSecond()] += m.getFirstWins();
+			wins[m.getSecond()][m.getFirst()] += m.getSecondWins();
+		}
+		return wins;
+	}
+
+	/*******************************************************************
+	 * Returns each entrant's rating from every game played. Ratings
+	 * are Bradley-Terry strengths fitted by minorization-maximization,
+	 * with one virtual win and loss against a BASE_RATING opponent so
+	 * an entrant that never wins still gets a finite rating.
+	 *
+	 * @return ratings indexed by entrant
+	 ******************************************************************/
+
+	public double[] getRatings() {
+		int n = entrants.length;
+		long[][] wins = wins();
+		double[] gamma = new double[n];
+		Arrays.fill(gamma, 1);
+
+		for(int iter = 0; iter<1000; iter++) {
+			double change = 0;
+			double[] next = new double[n];
+			for(int i = 0; i<n; i++) {
+				double won = 1;
+				double denom = 2 / (gamma[i] + 1);
+				for(int j = 0; j<n; j++) {
+					long games = wins[i][j] + wins[j][i];
+					won += wins[i][j];
+					if(games > 0)
+						denom += games / (gamma[i] + gamma[j]);
+				}
+				next[i] = won / denom;
+				change = Math.max(change,
+						Math.abs(Math.log(next[i] / gamma[i])));
+			}
+			gamma = next;
+			if(change < 1e-10)
+				break;
+		}
+
+		//centre the ratings on BASE_RATING
+		double mean = 0;
+		for(double g : gamma) {
+			mean += Math.log10(g) / n;
+		}
+		double[] ratings = new double[n];
+		for(int i = 0; i<n; i++) {
+			ratings[i] = BASE_RATING + 400 * (Math.log10(gamma[i]) - mean);
+		}
+		return ratings;
+	}
+
+	/*******************************************************************
+	 * Creates the ranking table, best rated first
+	 *
+	 * @return str ranking table
+	 ******************************************************************/
+
+	public String rankingTable() {
+		double[] ratings = getRatings();
+		double[] points = getPoints();
+		double[] rate = getGameWinRates();
+		Integer[] order = new Integer[entrants.length];
+		for(int i = 0; i<order.length; i++) {
+			order[i] = i;
+		}
+		Arrays.sort(order, Comparator.<Integer>comparingDouble(
+				i -> -ratings[i]));
+
+		StringBuilder sb = new StringBuilder();
+		sb.append(String.format("%-4s %-20s %7s %7s %8s%n",
+				"Rank", "Strategy", "Elo", "Points", "Game %"));
+		for(int r = 0; r<order.length; r++) {
+			int i = order[r];
+			sb.append(String.format("%-4d %-20s %7.0f %7.1f %7.1f%%%n",
+					r+1, entrants[i], ratings[i], points[i], rate[i] * 100));
+		}
+		return sb.toString();
+	}
+
+	/*******************************************************************
+	 * Returns every match played so far
+	 *
+	 * @return matches
+	 ******************************************************************/
+
+	public List<MatchResult> getMatches() {
+		return matches;
+	}
+
+	/*******************************************************************
+	 * Returns the total games played in every match so far
+	 *
+	 * @return games
+	 ******************************************************************/
+
+	public long getGamesPlayed() {
+		long games = 0;
+		for(MatchResult m : matches) {
+			games += m.getGames();
+		}
+		return games;
+	}
+
+	/*******************************************************************
+	 * Setter method to set the pool matches run in
+	 *
+	 * @param pool pool to run matches in
+	 ******************************************************************/
+
+	public void setPool(ForkJoinPool pool) {
+		this.pool = pool;
+	}
+
+	/*******************************************************************
+	 * Setter method to set the master seed
+	 *
+	 * @param seed seed every match's random stream derives from
+	 ******************************************************************/
+
+	public void setSeed(long seed) {
+		this.seed = seed;
+	}
+
+	/*******************************************************************
+	 * Setter method to set the games after which an undecided match
+	 * stops
+	 *
+	 * @param maxGames game limit per match
+	 ******************************************************************/
+
+	public void setMaxGames(long maxGames) {
+		this.maxGames = maxGames;
+	}
+
+	/*******************************************************************
+	 * Setter method to set the sequential test's parameters
+	 *
+	 * @param elo Elo difference the test distinguishes
+	 * @param error false positive and false negative rate, split
+	 * between the two one sided tests
+	 ******************************************************************/
+
+	public void setTest(double elo, double error) {
+		this.elo = elo;
+		this.error = error;
+	}
+
+	/*******************************************************************
+	 * Helper method creates a strategy from its command line name: a
+	 * number for a ThresholdStrategy or "expectimax"
+	 *
+	 * @param name strategy name
+	 * @return strategy
+	 ******************************************************************/
+
+	static Strategy parseStrategy(String name) {
+		if(name.equalsIgnoreCase("expectimax"))
+			return new ExpectimaxStrategy();
+		return new ThresholdStrategy(Integer.parseInt(name));
+	}
+
+	/*******************************************************************
+	 * Main method runs a tournament and prints the matches and the
+	 * ranking table.
+	 * Usage: Tournament [--swiss rounds] [--seed n] [--max games]
+	 *                   [--elo diff] winScore strategy strategy...
+	 * where each strategy is a threshold or "expectimax"
+	 ******************************************************************/
+
+	public static void main(String[] args) {
+		int rounds = 0;
+		long seed = 0;
+		long maxGames = DEFAULT_MAX_GAMES;
+		double elo = DEFAULT_ELO;
+
+		int a = 0;
+		for(; a+1<args.length && args[a].startsWith("--"); a += 2) {
+			if(args[a].equals("--swiss"))
+				rounds = Integer.parseInt(args[a+1]);
+			else if(args[a].equals("--seed"))
+				seed = Long.parseLong(args[a+1]);
+			else if(args[a].equals("--max"))
+				maxGames = Long.parseLong(args[a+1]);
+			else if(args[a].equals("--elo"))
+				elo = Double.parseDouble(args[a+1]);
+		}
+
+		if(args.length - a < 3) {
+			System.out.println("Usage: Tournament [--swiss rounds] " +
+					"[--seed n] [--max games] [--elo diff] winScore " +
+					"strategy strategy...");
+			return;
+		}
+
+		int winScore = Integer.parseInt(args[a]);
+		Strategy[] entrants = new Strategy[args.length - a - 1];
+		for(int i = 0; i<entrants.length; i++) {
+			entrants[i] = parseStrategy(args[a + 1 + i]);
+		}
+
+		Tournament t = new Tournament(winScore, entrants);
+		t.setSeed(seed);
+		t.setMaxGames(maxGames);
+		t.setTest(elo, DEFAULT_ERROR);
+
+		long start = System.nanoTime();
+		List<MatchResult> played = rounds > 0 ? t.swiss(rounds) :
+			t.roundRobin();
+		double secs = (System.nanoTime() - start) / 1e9;
+
+		for(MatchResult m : played) {
+			System.out.println(entrants[m.getFirst()] + " vs " +
+					entrants[m.getSecond()] + ": " + m.getFirstWins() +
+					"-" + m.getSecondWins() + " in " + m.getGames() +
+					" games, " + (m.getOutcome() == MatchResult.UNDECIDED ?
+					"undecided" : entrants[m.getOutcome() ==
+					MatchResult.FIRST ? m.getFirst() : m.getSecond()] +
+					" stronger"));
+		}
+		System.out.println();
+		System.out.print(t.rankingTable());
+		System.out.println(String.format("Games played: %d of %d for " +
+				"fixed-size matches, %.1f sec", t.getGamesPlayed(),
+				played.size() * maxGames, secs));
+		for(Strategy s : entrants) {
+			if(s instanceof ExpectimaxStrategy)
+				System.out.println(((ExpectimaxStrategy) s).getCache());
+		}
+	}
+}
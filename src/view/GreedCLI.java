@@ -1,7 +1,22 @@
 package view;
 
 import model.*;
+import ai.*;
+import sim.Strategy;
+import java.io.BufferedInputStream;
+import java.io.BufferedWriter;
+import java.io.FileDescriptor;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.file.Path;
 import java.util.*;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 /***********************************************************************
  * @author Matt Conflitti
@@ -10,16 +25,61 @@ import java.util.*;
  * GreedCLI class imports the GreedGame class and creates a command line
  * user interface to play the Game of Greed utilizing the GreedGame
  * class.
+ * 
+ * In batch mode the answers to every prompt are read from a stream of
+ * pre-recorded input and output is only flushed at the end of each
+ * game, so scripted games run as fast as the game logic allows.
+ * 
+ * Any of the last seats can be played by the computer, which decides
+ * each roll with an ExpectimaxStrategy lookahead. The number of
+ * computer seats follows the number of players after a plus, so an
+ * answer of 3+1 seats two people and the computer.
+ * 
+ * With a prompt prefix set, every prompt is sent as its own line
+ * starting with the prefix and each answer is read as one whole line,
+ * so a client on a line based connection can tell questions from
+ * messages.
  **********************************************************************/
 
 public class GreedCLI {
 
+	/** size of the output buffer in chars */
+	private static final int OUT_BUFFER = 1 << 16;
+
+	/** answer to the players prompt, players then optional computers */
+	private static final Pattern PLAYERS =
+			Pattern.compile("(\\d{1,9})(?:\\+(\\d{1,9}))?");
+
 	/** scanner to take user input */
 	private Scanner scnr;
 
+	/** buffered writer all output goes through */
+	private PrintWriter out;
+
+	/** true if input is pre-recorded and prompts are not flushed */
+	private boolean batch;
+
+	/** prefix of prompt lines, null to prompt on the console */
+	private String promptPrefix;
+
+	/** random source for dice rolls, null for the game default */
+	private RandomSource rng;
+
+	/** scoring rules, null for the standard rules */
+	private RuleSet rules;
+
+	/** reusable builder for roll lines */
+	private final StringBuilder line = new StringBuilder(128);
+
 	/** stores number of players playing */
 	private int numPlayers;
 
+	/** stores how many of the last seats the computer plays */
+	private int numComputers;
+
+	/** strategy of the computer players */
+	private Strategy computer;
+
 	/** stores which player will start each game */
 	private int playerStart;
 
@@ -32,6 +92,12 @@ public class GreedCLI {
 	/** array tracks each players wins */
 	private int[] playersWon;
 
+	/** directory holding solved policy files, null for no hints */
+	private Path hintDir;
+
+	/** solved policy used to give hints, null for no hints */
+	private Policy hints;
+
 	/*******************************************************************
 	 * 
 	 * Default constructor that sets the GreedCLI to starting values  
@@ -39,8 +105,27 @@ public class GreedCLI {
 	 ******************************************************************/
 
 	public GreedCLI() {
-		scnr = new Scanner(System.in);
+		this(System.in, new FileOutputStream(FileDescriptor.out), false);
+	}
+
+	/*******************************************************************
+	 * 
+	 * Constructor that reads input from and writes output to the given
+	 * streams
+	 * 
+	 * @param in stream of user input
+	 * @param outStream stream output is written to
+	 * @param batch true to only flush output at the end of each game
+	 ******************************************************************/
+
+	public GreedCLI(InputStream in, OutputStream outStream,
+			boolean batch) {
+		scnr = new Scanner(in);
+		out = new PrintWriter(new BufferedWriter(
+				new OutputStreamWriter(outStream), OUT_BUFFER), false);
+		this.batch = batch;
 		numPlayers = 0;
+		numComputers = -1;
 		playerStart = -1;
 		winScore = 0;
 		gamesPlayed = 0;
@@ -55,12 +140,13 @@ public class GreedCLI {
 
 	public void play() {
 
-		System.out.println("WELCOME TO THE GAME OF GREED...\n");
+		out.println("WELCOME TO THE GAME OF GREED...\n");
 
-		//Prompt user for number of players
-		while(numPlayers < 2 || numPlayers > 4) {
-			System.out.print("How many players (2-4)? ");
-			numPlayers = scnr.nextInt();
+		//Prompt user for number of players and computer seats
+		while(numPlayers < 2 || numPlayers > 4 || numComputers < 0 ||
+				numComputers > numPlayers) {
+			prompt("How many players (2-4, 3+1 for one computer)? ");
+			readPlayers();
 		}
 
 		//instantiate playersWon array to size of numPlayers to track
@@ -69,8 +155,22 @@ public class GreedCLI {
 
 		//prompt user for winning score
 		while(winScore < 1000 || winScore > 10000) {
-			System.out.print("Points to win the game (1000-10000)? ");
-			winScore = scnr.nextInt();
+			prompt("Points to win the game (1000-10000)? ");
+			winScore = readInt();
+		}
+
+		//hints and computer players look ahead under the rules played
+		RollOdds odds = rules == null ? RollOdds.STANDARD :
+			new RollOdds(rules.compile());
+
+		//load or solve the policy used for hints
+		if(hintDir != null) {
+			loadHints(odds);
+		}
+
+		if(numComputers > 0) {
+			computer = new ExpectimaxStrategy(odds,
+					ExpectimaxStrategy.DEFAULT_MAX_TURN);
 		}
 
 		//while another game is desired, play new game
@@ -87,36 +187,49 @@ public class GreedCLI {
 
 			//prompt user to select starting player
 			while(playerStart < 0) {
-				System.out.print("Player to start the game (" + 
+				prompt("Player to start the game (" + 
 						playerDashString + ")? ");
-				int val = scnr.nextInt();
+				int val = readInt();
 				if(val > 0 && val <= numPlayers)	
 					playerStart = val-1;
 			}
 
 			//instantiate GreedGame with desired specs and num players
-			GreedGame game = new GreedGame(playerStart, winScore);
-			game.makePlayers(numPlayers);
+			GreedGame game = GamePool.acquire(numPlayers, playerStart,
+					winScore);
+			game.setRandom(rng);
+			game.setRules(rules);
 
 			//while the game is not yet won, continue playing
 			while(!game.isWon()) {
 
+				//computer seats are the last numComputers seats
+				boolean isComputer = game.getPlayerTurn() >= 
+						numPlayers - numComputers;
+
 				//notify whose turn it is
-				System.out.print("Player " + 
-						(game.getCurrPlayer().getId()+1) + "'s " +
-						"turn --> Press ENTER to roll dice");
-				scnr.nextLine();
-				scnr.nextLine();
+				if(isComputer) {
+					out.println("Player " + 
+							(game.getCurrPlayer().getId()+1) + "'s " +
+							"turn --> Computer rolls dice");
+				} else {
+					prompt("Player " + 
+							(game.getCurrPlayer().getId()+1) + "'s " +
+							"turn --> Press ENTER to roll dice");
+					readEnter();
+				}
 
 				//infinite loop until broken by user input
 				while(true) {
 
 					//roll dice, calc score
 					game.rollDice();
-					System.out.print("You rolled: " + game.displayDice()
-							+ "\t");
+					line.setLength(0);
+					game.appendDice(line.append("You rolled: "))
+						.append('\t');
 					game.turn();
-					System.out.println(game.displayTurn());
+					game.appendTurn(line);
+					out.println(line);
 
 					//break loop, pass dice if rolled zero points
 					if(game.getRollScore() == 0) {
@@ -125,11 +238,27 @@ public class GreedCLI {
 						break;
 					}
 
+					//computer decides without prompting
+					if(isComputer) {
+						if(computer.rollAgain(game)) {
+							out.println("Computer rolls again");
+							continue;
+						}
+						out.println("Computer passes the dice");
+						game.passDice();
+						break;
+					}
+
+					//show the optimal decision if hints are on
+					if(hints != null) {
+						out.println(hint(game));
+					}
+
 					//prompt to roll again if rules allow
 					char response;
-					System.out.print("Would you like to roll again" + 
+					prompt("Would you like to roll again" + 
 							"(Y,y/N,n)? ");
-					response = scnr.next().charAt(0);
+					response = readChar();
 
 					//break loop, pass dice if user is done with turn
 					if(response == 'n' || response == 'N') {
@@ -139,15 +268,15 @@ public class GreedCLI {
 				}
 
 				//after each turn display players' scores
-				System.out.println(game.displayGameScore());
+				out.println(game.displayGameScore());
 			}
 
 			//display player that has won current game
 			if(playersWon[game.getWinnerId()]>0)
-				System.out.println("Player " + (game.getWinnerId()+1) 
+				out.println("Player " + (game.getWinnerId()+1) 
 						+ " wins again!");
 			else
-				System.out.println("Player " + (game.getWinnerId()+1) 
+				out.println("Player " + (game.getWinnerId()+1) 
 						+ " wins!");
 
 			//add win to array, add game to total played, and reset
@@ -155,19 +284,23 @@ public class GreedCLI {
 			playersWon[game.getWinnerId()]++;
 			gamesPlayed++;
 			playerStart = -1;
+			GamePool.release(game);
 
 			//display game record
-			System.out.println("Number of games played: " + 
+			out.println("Number of games played: " + 
 					gamesPlayed);
 			for(int i = 0; i<playersWon.length; i++) {
-				System.out.println("Games won by Player " + (i+1) + ": "
+				out.println("Games won by Player " + (i+1) + ": "
 						+ playersWon[i]);
 			}
 
+			//game boundary, push out everything written so far
+			out.flush();
+
 			//prompt to play again
 			char response;
-			System.out.print("Would you like to play again (Y,y/N,n)?");
-			response = scnr.next().charAt(0);
+			prompt("Would you like to play again (Y,y/N,n)?");
+			response = readChar();
 
 			//break loop game loop
 			if(response == 'n' || response == 'N') {
@@ -177,17 +310,257 @@ public class GreedCLI {
 		}
 
 		//goodbye message. end of program.
-		System.out.println("Bye. Thanks for playing.");
+		out.println("Bye. Thanks for playing.");
+		out.flush();
+
+	}
+
+	/*******************************************************************
+	 * Writes a prompt, on a line of its own after the prompt prefix if
+	 * one is set
+	 * 
+	 * @param text question to ask
+	 ******************************************************************/
+
+	private void prompt(String text) {
+		if(promptPrefix == null) {
+			out.print(text);
+		} else {
+			out.print(promptPrefix);
+			out.println(text.trim());
+		}
+	}
+
+	/*******************************************************************
+	 * Reads the next int, flushing the prompt first unless in batch
+	 * mode. A line answer that is not a number reads as -1 so the
+	 * question is asked again.
+	 * 
+	 * @return int read
+	 ******************************************************************/
+
+	private int readInt() {
+		flushPrompt();
+		if(promptPrefix == null)
+			return scnr.nextInt();
+
+		try {
+			return Integer.parseInt(scnr.nextLine().trim());
+		} catch(NumberFormatException e) {
+			return -1;
+		}
+	}
+
+	/*******************************************************************
+	 * Reads the number of players, optionally followed by a plus and
+	 * the number of computer seats, flushing the prompt first unless in
+	 * batch mode. A line answer that does not match reads as no
+	 * players so the question is asked again.
+	 ******************************************************************/
+
+	private void readPlayers() {
+		flushPrompt();
+		String answer = promptPrefix == null ? scnr.next(PLAYERS) :
+			scnr.nextLine().trim();
+
+		Matcher m = PLAYERS.matcher(answer);
+		if(!m.matches()) {
+			numPlayers = -1;
+			return;
+		}
+		numPlayers = Integer.parseInt(m.group(1));
+		numComputers = m.group(2) == null ? 0 :
+			Integer.parseInt(m.group(2));
+	}
+
+	/*******************************************************************
+	 * Waits for the user to press ENTER, flushing the prompt first
+	 * unless in batch mode. On the console the rest of the previous
+	 * answer's line is read first.
+	 ******************************************************************/
+
+	private void readEnter() {
+		flushPrompt();
+		if(promptPrefix == null)
+			scnr.nextLine();
+		scnr.nextLine();
+	}
+
+	/*******************************************************************
+	 * Reads the first char of the next token, flushing the prompt first
+	 * unless in batch mode. An empty line answer reads as 'y'.
+	 * 
+	 * @return char read
+	 ******************************************************************/
+
+	private char readChar() {
+		flushPrompt();
+		if(promptPrefix == null)
+			return scnr.next().charAt(0);
+
+		String answer = scnr.nextLine().trim();
+		return answer.isEmpty() ? 'y' : answer.charAt(0);
+	}
+
+	/*******************************************************************
+	 * Helper method makes a prompt visible before waiting for a user.
+	 * Batch input is already recorded so nothing is flushed.
+	 ******************************************************************/
+
+	private void flushPrompt() {
+		if(!batch)
+			out.flush();
+	}
+
+	/*******************************************************************
+	 * Loads the policy for the chosen winning score and rules from the
+	 * hint directory, solving and saving it the first time. House rules
+	 * add a hash of the rules to the file name. Hints are only
+	 * available for two players.
+	 * 
+	 * @param odds exact roll odds of the rules being played
+	 ******************************************************************/
+
+	private void loadHints(RollOdds odds) {
+		if(numPlayers != 2) {
+			out.println("Hints are only available for 2 players.");
+			return;
+		}
+
+		String name = "greed-" + winScore;
+		if(rules != null && !rules.equals(RuleSet.STANDARD))
+			name += "-" + Integer.toHexString(rules.hashCode());
+
+		out.println("Loading strategy hints...");
+		try {
+			hints = PolicySolver.loadOrSolve(
+					hintDir.resolve(name + ".policy"), winScore, odds);
+		} catch(IOException | IllegalArgumentException e) {
+			out.println("Hints unavailable: " + e.getMessage());
+		}
+	}
+
+	/*******************************************************************
+	 * Creates a string with the optimal decision for the current turn
+	 * 
+	 * @param game game positioned after a scoring roll
+	 * @return str hint to display
+	 ******************************************************************/
+
+	private String hint(GreedGame game) {
+		int turn = game.getPlayerTurn();
+		boolean roll = hints.shouldRoll(
+				game.getCurrPlayer().getGameScore(),
+				game.getPlayer(1 - turn).getGameScore(),
+				game.getTurnScore(), game.getDiceAvail());
 
+		return roll ? "Hint: roll again" : "Hint: pass the dice";
+	}
+
+	/*******************************************************************
+	 * Setter method to turn on hints from solved policies kept in a
+	 * directory
+	 * 
+	 * @param hintDir directory of policy files, null for no hints
+	 ******************************************************************/
+
+	public void setHintDir(Path hintDir) {
+		this.hintDir = hintDir;
+	}
+
+	/*******************************************************************
+	 * Setter method to send prompts as lines starting with a prefix and
+	 * read every answer as one line
+	 * 
+	 * @param promptPrefix prefix of prompt lines, or null for the
+	 * console
+	 ******************************************************************/
+
+	public void setPromptPrefix(String promptPrefix) {
+		this.promptPrefix = promptPrefix;
+	}
+
+	/*******************************************************************
+	 * Setter method to set the random source used for dice rolls, so
+	 * scripted games can be replayed
+	 * 
+	 * @param rng random source, or null for the game default
+	 ******************************************************************/
+
+	public void setRandom(RandomSource rng) {
+		this.rng = rng;
+	}
+
+	/*******************************************************************
+	 * Setter method to set the scoring rules of every game
+	 * 
+	 * @param rules rule set, or null for the standard rules
+	 ******************************************************************/
+
+	public void setRules(RuleSet rules) {
+		this.rules = rules;
 	}
 
 	/*******************************************************************
 	 * Main method instantiates the GreedCLI class and invokes the play
 	 * method to start the game.
+	 * 
+	 * Options:
+	 *   --hints dir     show hints using policy files kept in dir
+	 *   --batch [file]  read recorded input from file (or stdin) and
+	 *                   flush output once per game
+	 *   --seed n        roll dice from a seeded source
+	 *   --rules file    score by house rules read from a properties
+	 *                   file
 	 ******************************************************************/
 
-	public static void main(String[] args) {
-		GreedCLI cli = new GreedCLI();
-		cli.play();
+	public static void main(String[] args) throws IOException {
+		Path hintDir = null;
+		String input = null;
+		boolean batch = false;
+		RandomSource rng = null;
+		RuleSet rules = null;
+
+		for(int i = 0; i<args.length; i++) {
+			if(args[i].equals("--hints") && i+1 < args.length)
+				hintDir = Path.of(args[++i]);
+			else if(args[i].equals("--seed") && i+1 < args.length)
+				rng = new Xoshiro256Random(Long.parseLong(args[++i]));
+			else if(args[i].equals("--rules") && i+1 < args.length)
+				rules = RuleSet.load(Path.of(args[++i]));
+			else if(args[i].equals("--batch")) {
+				batch = true;
+				if(i+1 < args.length && !args[i+1].startsWith("--"))
+					input = args[++i];
+			}
+		}
+
+		InputStream in = input == null ? System.in :
+			new BufferedInputStream(new FileInputStream(input), 1 << 16);
+		GreedCLI cli = new GreedCLI(in,
+				new FileOutputStream(FileDescriptor.out), batch);
+		cli.setHintDir(hintDir);
+		cli.setRandom(rng);
+		cli.setRules(rules);
+
+		boolean invalid = false;
+		try {
+			cli.play();
+		} catch(InputMismatchException e) {
+			//an answer is not a number where the prompt expects one
+			cli.out.flush();
+			System.err.println("Invalid input: " + cli.scnr.next());
+			invalid = true;
+		} catch(NoSuchElementException e) {
+			//recorded input ran out before the session ended
+			cli.out.flush();
+			if(!batch)
+				throw e;
+		} finally {
+			in.close();
+		}
+
+		if(invalid)
+			System.exit(1);
 	}
 }